@@ -118,10 +118,10 @@ const TicketDetails = ({ ticketId, onStatusUpdate, onBack }) => {
 
         <div style={{ display: 'flex', gap: '2rem', marginBottom: '1.5rem' }}>
           <div>
-            <strong>Submitter:</strong> {ticket.submitter ? (ticket.submitter.username || ticket.submitter.id) : '—'}
+            <strong>Submitter:</strong> {ticket.submitter ? (ticket.submitter.name || ticket.submitter.username || ticket.submitter.id) : '—'}
           </div>
           <div>
-            <strong>Assigned Agent:</strong> {ticket.assignedAgent ? (ticket.assignedAgent.username || ticket.assignedAgent.id) : '—'}
+            <strong>Assigned Agent:</strong> {ticket.assignedAgent ? (ticket.assignedAgent.name || ticket.assignedAgent.username || ticket.assignedAgent.id) : '—'}
           </div>
           <div>
             <strong>Created:</strong> {formatDate(ticket.createdAt)}
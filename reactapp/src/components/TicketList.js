@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 
 const TicketList = ({ onViewDetails, statusFilter }) => {
   const [tickets, setTickets] = useState([]);
@@ -12,19 +12,43 @@ const TicketList = ({ onViewDetails, statusFilter }) => {
   const [searchResult, setSearchResult] = useState(null);
   const [isSearchMode, setIsSearchMode] = useState(false);
   const ticketsPerPage = 5;
+  // Change-feed cursor: the first sync starts at 0, later ones fetch only what changed since
+  const sinceRef = useRef('0');
 
   useEffect(() => {
     fetchTickets();
   }, []);
 
+  // Apply pushed changes instead of re-fetching; EventSource cannot send headers, so the token goes in the URL
+  useEffect(() => {
+    const { token } = JSON.parse(localStorage.getItem('user') || '{}');
+    if (!token || typeof EventSource === 'undefined') return undefined;
+    const source = new EventSource(`/api/tickets/stream?access_token=${encodeURIComponent(token)}`);
+    source.addEventListener('ticket', (e) => {
+      const change = JSON.parse(e.data);
+      setTickets((prev) => {
+        const rest = prev.filter((t) => t.id !== change.ticketId);
+        return change.type === 'DELETED' ? rest : [change.ticket, ...rest];
+      });
+    });
+    source.addEventListener('resync', () => fetchTickets());
+    return () => source.close();
+  }, []);
+
   const fetchTickets = async () => {
     try {
-      const response = await fetch('/api/tickets');
-      if (!response.ok) {
-        throw new Error('Failed to fetch tickets');
+      let hasMore = true;
+      while (hasMore) {
+        const response = await fetch(`/api/tickets/changes?since=${encodeURIComponent(sinceRef.current)}`);
+        if (!response.ok) {
+          throw new Error('Failed to fetch tickets');
+        }
+        const page = await response.json();
+        const gone = new Set([...page.deleted, ...page.upserts.map((t) => t.id)]);
+        setTickets((prev) => [...page.upserts.slice().reverse(), ...prev.filter((t) => !gone.has(t.id))]);
+        sinceRef.current = page.nextSince;
+        hasMore = page.hasMore;
       }
-      const data = await response.json();
-      setTickets(data);
     } catch (err) {
       setError(err.message);
     } finally {
@@ -250,9 +274,9 @@ const TicketList = ({ onViewDetails, statusFilter }) => {
                       )}
                     </div>
                     <div style={{ marginTop: '0.5rem', fontSize: '0.9rem', color: '#666' }}>
-                      {ticket.submitter ? `Submitter: ${ticket.submitter.username || ticket.submitter.id}` : 'Submitter: —'} • Created: {ticket.createdAt ? formatDate(ticket.createdAt) : '—'}
+                      {ticket.submitter ? `Submitter: ${ticket.submitter.name || ticket.submitter.username || ticket.submitter.id}` : 'Submitter: —'} • Created: {ticket.createdAt ? formatDate(ticket.createdAt) : '—'}
                       {ticket.assignedAgent && (
-                        <> • Assigned: {ticket.assignedAgent.username || ticket.assignedAgent.id}</>
+                        <> • Assigned: {ticket.assignedAgent.name || ticket.assignedAgent.username || ticket.assignedAgent.id}</>
                       )}
                     </div>
                   </div>
@@ -16,7 +16,7 @@ const UserTicketList = ({ userTicketsOnly = false }) => {
 
   const fetchTickets = async () => {
     try {
-      const response = await fetch('http://localhost:8080/api/tickets');
+      const response = await fetch('http://localhost:8080/api/tickets?unpaged=true');
       if (!response.ok) {
         throw new Error('Failed to fetch tickets');
       }
@@ -152,9 +152,9 @@ const UserTicketList = ({ userTicketsOnly = false }) => {
                       )}
                     </div>
                     <div style={{ marginTop: '0.5rem', fontSize: '0.9rem', color: '#666' }}>
-                      {ticket.submitter ? `Submitter: ${ticket.submitter.username || ticket.submitter.id}` : 'Submitter: —'} • Created: {ticket.createdAt ? formatDate(ticket.createdAt) : '—'}
+                      {ticket.submitter ? `Submitter: ${ticket.submitter.name || ticket.submitter.username || ticket.submitter.id}` : 'Submitter: —'} • Created: {ticket.createdAt ? formatDate(ticket.createdAt) : '—'}
                       {ticket.assignedAgent && (
-                        <> • Assigned: {ticket.assignedAgent.username || ticket.assignedAgent.id}</>
+                        <> • Assigned: {ticket.assignedAgent.name || ticket.assignedAgent.username || ticket.assignedAgent.id}</>
                       )}
                     </div>
                   </div>
@@ -4,6 +4,21 @@ import './index.css';
 import App from './App';
 import reportWebVitals from './reportWebVitals';
 
+// Attach the access token from the stored login to every API call
+const originalFetch = window.fetch.bind(window);
+window.fetch = (input, init = {}) => {
+  const url = typeof input === 'string' ? input : input.url;
+  const { token } = JSON.parse(localStorage.getItem('user') || '{}');
+  if (token && url.includes('/api/') && !url.includes('/api/auth/')) {
+    const headers = new Headers(init.headers || {});
+    if (!headers.has('Authorization')) {
+      headers.set('Authorization', `Bearer ${token}`);
+    }
+    return originalFetch(input, { ...init, headers });
+  }
+  return originalFetch(input, init);
+};
+
 const root = ReactDOM.createRoot(document.getElementById('root'));
 root.render(
   <React.StrictMode>
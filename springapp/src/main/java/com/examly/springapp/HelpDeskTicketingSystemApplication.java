@@ -2,8 +2,10 @@ package com.examly.springapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
 
-@SpringBootApplication
+// Users authenticate with JWTs from /api/auth, so no generated in-memory user is needed
+@SpringBootApplication(exclude = UserDetailsServiceAutoConfiguration.class)
 public class HelpDeskTicketingSystemApplication {
 
 	public static void main(String[] args) {
@@ -1,13 +1,18 @@
 package com.examly.springapp.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import com.examly.springapp.model.Category;
 import com.examly.springapp.model.Priority;
+import com.examly.springapp.model.User;
 import com.examly.springapp.repository.CategoryRepository;
 import com.examly.springapp.repository.PriorityRepository;
+import com.examly.springapp.repository.UserRepository;
 
 import java.util.Arrays;
 import java.util.List;
@@ -15,6 +20,8 @@ import java.util.List;
 @Configuration
 public class DataInitializer {
 
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+
     @Bean
     CommandLineRunner seedReferenceData(CategoryRepository categoryRepository,
                                         PriorityRepository priorityRepository) {
@@ -25,6 +32,7 @@ public class DataInitializer {
                     Priority priority = new Priority();
                     priority.setName(p);
                     priority.setDescription(p + " priority");
+                    priority.setLevel(Priority.defaultLevel(p));
                     priorityRepository.save(priority);
                 }
             }
@@ -40,4 +48,23 @@ public class DataInitializer {
             }
         };
     }
+
+    // Credentials come only from configuration; nothing is created when they are not set
+    @Bean
+    CommandLineRunner seedAdmin(UserRepository userRepository,
+                                @Value("${app.bootstrap.admin.email:}") String email,
+                                @Value("${app.bootstrap.admin.password:}") String password) {
+        return args -> {
+            if (email.isBlank() || password.isBlank() || userRepository.findByEmail(email).isPresent()) {
+                return;
+            }
+            User admin = new User();
+            admin.setName("admin");
+            admin.setEmail(email);
+            admin.setPasswordHash(password);
+            admin.setRole(User.Role.ADMIN);
+            userRepository.save(admin);
+            log.info("Created bootstrap ADMIN account {}", email);
+        };
+    }
 }
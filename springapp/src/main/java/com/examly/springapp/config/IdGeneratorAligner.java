@@ -0,0 +1,50 @@
+package com.examly.springapp.config;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.Ticket;
+import com.examly.springapp.model.TicketHistory;
+
+/**
+ * Moves the pooled id generators past the ids already in their tables.
+ *
+ * Tables that started on AUTO_INCREMENT ids have no id_generators row yet; a fresh
+ * pool would start at 1 and collide with existing rows. The pooled optimizer hands
+ * out (next_val - allocationSize, next_val], so next_val must be at least
+ * MAX(id) + allocationSize. Runs once during context refresh, before the web
+ * server accepts requests.
+ */
+@Component
+public class IdGeneratorAligner {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorAligner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory is injected so the schema (and id_generators) exists before we run
+    public IdGeneratorAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        align("tickets", "tickets", Ticket.ID_ALLOCATION_SIZE);
+        align("ticket_history", "ticket_history", TicketHistory.ID_ALLOCATION_SIZE);
+    }
+
+    private void align(String generatorName, String table, int allocationSize) {
+        Long floor = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) + ? FROM " + table, Long.class, allocationSize);
+        jdbcTemplate.update(
+                "INSERT INTO id_generators (gen_name, next_val) VALUES (?, ?) "
+                        + "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))",
+                generatorName, floor);
+        log.debug("Id generator {} aligned to at least {}", generatorName, floor);
+    }
+}
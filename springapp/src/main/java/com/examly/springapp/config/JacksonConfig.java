@@ -1,5 +1,8 @@
 package com.examly.springapp.config;
 
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
@@ -7,10 +10,14 @@ import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
 @Configuration
 public class JacksonConfig {
     @Bean
-    public Hibernate5Module hibernate5Module() {
-        Hibernate5Module module = new Hibernate5Module();
+    public Hibernate5Module hibernate5Module(EntityManagerFactory entityManagerFactory) {
+        // The session factory lets the module resolve identifier names for unloaded proxies
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Hibernate5Module module = new Hibernate5Module(sessionFactory, sessionFactory);
         // Do not force lazy loading; serialize initialized properties only
         module.disable(Hibernate5Module.Feature.FORCE_LAZY_LOADING);
+        // Associations left out of a fetch graph are written as {"id": ...} instead of null
+        module.enable(Hibernate5Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
         return module;
     }
 }
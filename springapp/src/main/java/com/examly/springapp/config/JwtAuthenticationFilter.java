@@ -0,0 +1,100 @@
+package com.examly.springapp.config;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.examly.springapp.service.AuthenticatedUser;
+import com.examly.springapp.service.VerifiedTokenCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Authenticates "Authorization: Bearer <token>" requests against the verified-token
+ * cache. Requests without a valid token continue unauthenticated and are turned away
+ * by the authorization rules in SecurityConfig, not here.
+ *
+ * Time spent here is recorded as the auth.filter timer, tagged with the outcome
+ * (none, cached, verified, rejected).
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    // EventSource cannot set headers, so the ticket stream may pass the token as ?access_token=
+    private static final String STREAM_PATH = "/api/tickets/stream";
+    private static final String ACCESS_TOKEN_PARAM = "access_token";
+
+    private final VerifiedTokenCache tokenCache;
+    private final Timer noToken;
+    private final Timer cached;
+    private final Timer verified;
+    private final Timer rejected;
+
+    public JwtAuthenticationFilter(VerifiedTokenCache tokenCache, MeterRegistry meterRegistry) {
+        this.tokenCache = tokenCache;
+        this.noToken = timer(meterRegistry, "none");
+        this.cached = timer(meterRegistry, "cached");
+        this.verified = timer(meterRegistry, "verified");
+        this.rejected = timer(meterRegistry, "rejected");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        Timer outcome = noToken;
+        String token = bearerToken(request);
+        if (token != null) {
+            VerifiedTokenCache.Result result = tokenCache.authenticate(token);
+            switch (result.getOutcome()) {
+                case CACHED:
+                    outcome = cached;
+                    break;
+                case VERIFIED:
+                    outcome = verified;
+                    break;
+                default:
+                    outcome = rejected;
+            }
+            result.getUser().ifPresent(this::authenticate);
+        }
+        outcome.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        chain.doFilter(request, response);
+    }
+
+    private String bearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length()).trim();
+        }
+        if (STREAM_PATH.equals(request.getRequestURI()) && request.getParameter(ACCESS_TOKEN_PARAM) != null) {
+            return request.getParameter(ACCESS_TOKEN_PARAM).trim();
+        }
+        return null;
+    }
+
+    private void authenticate(AuthenticatedUser user) {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                user, null, List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole())));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    private static Timer timer(MeterRegistry registry, String outcome) {
+        return Timer.builder("auth.filter")
+                .description("Time spent authenticating the bearer token of a request")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,49 @@
+package com.examly.springapp.config;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.Priority;
+
+/**
+ * Fills priorities.level and tickets.priority_level for rows written before the work
+ * queue existed. Priorities get the default level for their name; tickets copy the
+ * level of their priority. Runs once during context refresh and touches nothing when
+ * every row already has a level.
+ */
+@Component
+public class PriorityLevelBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(PriorityLevelBackfill.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory is injected so the schema (and the level columns) exists before we run
+    public PriorityLevelBackfill(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        List<Map<String, Object>> priorities = jdbcTemplate.queryForList(
+                "SELECT id, name FROM priorities WHERE level IS NULL");
+        for (Map<String, Object> row : priorities) {
+            jdbcTemplate.update("UPDATE priorities SET level = ? WHERE id = ?",
+                    Priority.defaultLevel((String) row.get("name")), row.get("id"));
+        }
+        int tickets = jdbcTemplate.update(
+                "UPDATE tickets SET priority_level = (SELECT p.level FROM priorities p WHERE p.id = tickets.priority_id) "
+                        + "WHERE priority_level IS NULL AND priority_id IS NOT NULL");
+        if (!priorities.isEmpty() || tickets > 0) {
+            log.info("Backfilled queue levels for {} priorities and {} tickets", priorities.size(), tickets);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.examly.springapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Enables @Scheduled housekeeping jobs such as expiring abandoned chunked uploads
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
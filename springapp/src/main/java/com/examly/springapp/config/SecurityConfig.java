@@ -0,0 +1,49 @@
+package com.examly.springapp.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import com.examly.springapp.service.VerifiedTokenCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Stateless bearer-token security: no session, no CSRF token, 401 instead of a login page
+@Configuration
+@EnableWebSecurity
+public class SecurityConfig {
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, VerifiedTokenCache tokenCache,
+                                                   MeterRegistry meterRegistry) throws Exception {
+        http
+                .cors().and()
+                .csrf().disable()
+                .httpBasic().disable()
+                .formLogin().disable()
+                .logout().disable()
+                .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS).and()
+                .exceptionHandling().authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)).and()
+                .authorizeRequests(auth -> auth
+                        .antMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        .antMatchers("/", "/error", "/api/auth/**").permitAll()
+                        .antMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                        .antMatchers("/actuator/health").permitAll()
+                        .antMatchers("/actuator/**").hasRole("ADMIN")
+                        // Creating, editing and deleting users (and so granting roles) is for admins only
+                        .antMatchers(HttpMethod.POST, "/api/users", "/api/users/**").hasRole("ADMIN")
+                        .antMatchers(HttpMethod.PUT, "/api/users/**").hasRole("ADMIN")
+                        .antMatchers(HttpMethod.DELETE, "/api/users/**").hasRole("ADMIN")
+                        .anyRequest().authenticated())
+                .addFilterBefore(new JwtAuthenticationFilter(tokenCache, meterRegistry),
+                        UsernamePasswordAuthenticationFilter.class);
+        return http.build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.examly.springapp.config;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings databases created before users.name was unique in line with uk_users_name.
+ *
+ * Schema update cannot add the constraint while two users share a name, so this runs
+ * after it: in each group of duplicates the oldest user (lowest id) keeps the name and
+ * the others are renamed to "name#id". Their email login is unchanged; each rename is
+ * logged. Then the constraint is added if the schema update had to skip it. Touches
+ * nothing when names are already unique.
+ */
+@Component
+public class UserNameDeduplicator {
+
+    private static final Logger log = LoggerFactory.getLogger(UserNameDeduplicator.class);
+
+    // users.name is VARCHAR(255)
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory is injected so the schema update has already run (and failed or not) before we do
+    public UserNameDeduplicator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void deduplicate() {
+        List<Map<String, Object>> duplicates = jdbcTemplate.queryForList(
+                "SELECT u.id, u.name FROM users u WHERE u.name IN "
+                        + "(SELECT d.name FROM users d GROUP BY d.name HAVING COUNT(*) > 1) ORDER BY u.name, u.id");
+        Set<String> kept = new HashSet<>();
+        for (Map<String, Object> row : duplicates) {
+            Long id = ((Number) row.get("id")).longValue();
+            String name = (String) row.get("name");
+            if (kept.add(name)) {
+                continue;
+            }
+            String renamed = uniqueName(name, id);
+            jdbcTemplate.update("UPDATE users SET name = ? WHERE id = ?", renamed, id);
+            log.warn("User {} shared the name '{}' with an older account and was renamed to '{}'", id, name, renamed);
+        }
+
+        if (!nameIsUnique()) {
+            try {
+                jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT uk_users_name UNIQUE (name)");
+                log.info("Added unique constraint uk_users_name on users.name");
+            } catch (DataAccessException e) {
+                // Logins still resolve to the oldest user of a name; the next start tries again
+                log.warn("Could not add uk_users_name on users.name: {}", e.getMessage());
+            }
+        }
+    }
+
+    private String uniqueName(String name, Long id) {
+        String candidate = withSuffix(name, "#" + id);
+        for (int attempt = 2; exists(candidate); attempt++) {
+            candidate = withSuffix(name, "#" + id + "-" + attempt);
+        }
+        return candidate;
+    }
+
+    private static String withSuffix(String name, String suffix) {
+        return name.substring(0, Math.min(name.length(), MAX_NAME_LENGTH - suffix.length())) + suffix;
+    }
+
+    private boolean exists(String name) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE name = ?", Integer.class, name);
+        return count != null && count > 0;
+    }
+
+    // True when some unique index covers exactly users.name, whatever the database named it
+    private boolean nameIsUnique() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, Set<String>> columnsByIndex = new HashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), "users", true, false)) {
+                while (rs.next()) {
+                    String index = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (index != null && column != null) {
+                        columnsByIndex.computeIfAbsent(index, k -> new HashSet<>()).add(column.toLowerCase());
+                    }
+                }
+            }
+            return columnsByIndex.containsValue(Set.of("name"));
+        }));
+    }
+}
@@ -1,14 +1,30 @@
 package com.examly.springapp.controller;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import com.examly.springapp.dto.AttachByDigestRequest;
+import com.examly.springapp.dto.ChunkReceipt;
+import com.examly.springapp.dto.ChunkedUploadStatus;
 import com.examly.springapp.dto.CreateAttachmentRequest;
+import com.examly.springapp.dto.InitChunkedUploadRequest;
 import com.examly.springapp.model.Attachment;
 import com.examly.springapp.service.AttachmentService;
+import com.examly.springapp.service.ChunkedUploadService;
+import com.examly.springapp.service.IdempotencyService;
+import com.examly.springapp.storage.FileRangeResponder;
 
 @RestController
 @RequestMapping("/api/attachments")
@@ -16,9 +32,14 @@ import com.examly.springapp.service.AttachmentService;
 public class AttachmentController {
 
     private final AttachmentService service;
+    private final ChunkedUploadService chunkedUploads;
+    private final IdempotencyService idempotency;
 
-    public AttachmentController(AttachmentService service) {
+    public AttachmentController(AttachmentService service, ChunkedUploadService chunkedUploads,
+                                IdempotencyService idempotency) {
         this.service = service;
+        this.chunkedUploads = chunkedUploads;
+        this.idempotency = idempotency;
     }
 
     @GetMapping
@@ -43,6 +64,16 @@ public class AttachmentController {
         }
     }
 
+    // Streams the stored file; supports a single Range for resumable and partial downloads
+    @GetMapping("/{id}/content")
+    public void downloadContent(@PathVariable Long id, HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        Attachment attachment = service.getAttachmentById(id);
+        Path path = service.getContentPath(attachment);
+        FileRangeResponder.write(request, response, path, Files.size(path),
+                attachment.getContentType(), attachment.getFileName());
+    }
+
     @GetMapping("/ticket/{ticketId}")
     public ResponseEntity<List<Attachment>> getAttachmentsByTicketId(@PathVariable Long ticketId) {
         try {
@@ -53,14 +84,74 @@ public class AttachmentController {
         }
     }
 
+    // The creating POSTs take an optional Idempotency-Key; a retry gets the first response back
     @PostMapping
-    public ResponseEntity<Attachment> createAttachment(@RequestBody CreateAttachmentRequest req) {
-        try {
-            Attachment created = service.createAttachment(req);
+    public ResponseEntity<?> createAttachment(@RequestBody CreateAttachmentRequest req,
+                                              @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotency.execute("POST /api/attachments", idempotencyKey, req, () -> {
+            try {
+                Attachment created = service.createAttachment(req);
+                return ResponseEntity.status(HttpStatus.CREATED).body(created);
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+        });
+    }
+
+    // sha256 is optional; when given, the upload is rejected unless the received bytes match it.
+    // A keyed retry is matched on the form fields and the file's name and size, not its bytes
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadAttachment(@RequestParam Long ticketId,
+                                              @RequestParam(required = false) Long userId,
+                                              @RequestParam(required = false) String sha256,
+                                              @RequestParam("file") MultipartFile file,
+                                              @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        List<Object> request = Arrays.asList(ticketId, userId, sha256, file.getOriginalFilename(), file.getSize());
+        return idempotency.execute("POST /api/attachments/upload", idempotencyKey, request, () -> {
+            Attachment created = service.uploadAttachment(ticketId, userId, file, sha256);
             return ResponseEntity.status(HttpStatus.CREATED).body(created);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        }
+        });
+    }
+
+    // 201 when the content is already stored; 404 means the client has to upload the bytes
+    @PostMapping("/by-digest")
+    public ResponseEntity<?> attachExisting(@RequestBody AttachByDigestRequest req,
+                                            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotency.execute("POST /api/attachments/by-digest", idempotencyKey, req, () -> {
+            Attachment created = service.attachExisting(req);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        });
+    }
+
+    // Chunked, resumable upload: start, PUT chunks (any order, in parallel), check status, complete
+    @PostMapping("/uploads")
+    public ResponseEntity<ChunkedUploadStatus> startChunkedUpload(@RequestBody InitChunkedUploadRequest req) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(chunkedUploads.start(req));
+    }
+
+    @PutMapping("/uploads/{uploadId}/chunks/{index}")
+    public ResponseEntity<ChunkReceipt> uploadChunk(@PathVariable String uploadId, @PathVariable int index,
+                                                    @RequestHeader(value = "X-Chunk-SHA256", required = false) String sha256,
+                                                    HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(chunkedUploads.writeChunk(uploadId, index, request.getInputStream(), sha256));
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<ChunkedUploadStatus> getChunkedUploadStatus(@PathVariable String uploadId) {
+        return ResponseEntity.ok(chunkedUploads.getStatus(uploadId));
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<?> completeChunkedUpload(@PathVariable String uploadId,
+                                                   @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotency.execute("POST /api/attachments/uploads/complete", idempotencyKey, uploadId,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(chunkedUploads.complete(uploadId)));
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<Void> abortChunkedUpload(@PathVariable String uploadId) {
+        chunkedUploads.abort(uploadId);
+        return ResponseEntity.noContent().build();
     }
 
     @PutMapping("/{id}")
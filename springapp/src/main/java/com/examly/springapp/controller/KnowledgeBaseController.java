@@ -1,14 +1,18 @@
 package com.examly.springapp.controller;
 
 import com.examly.springapp.dto.CreateKnowledgeBaseArticleRequest;
+import com.examly.springapp.dto.KnowledgeBaseSearchResult;
 import com.examly.springapp.model.Category;
 import com.examly.springapp.model.KnowledgeBaseArticle;
 import com.examly.springapp.service.CategoryService;
 import com.examly.springapp.service.KnowledgeBaseArticleService;
+import com.examly.springapp.service.ResourceVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,17 +26,27 @@ public class KnowledgeBaseController {
     
     @Autowired
     private CategoryService categoryService;
+
+    @Autowired
+    private ResourceVersions versions;
     
     @GetMapping
-    public ResponseEntity<List<KnowledgeBaseArticle>> getAllArticles() {
+    public ResponseEntity<List<KnowledgeBaseArticle>> getAllArticles(WebRequest request) {
+        if (request.checkNotModified(versions.tableTag(ResourceVersions.KNOWLEDGE_BASE))) {
+            return null;
+        }
         List<KnowledgeBaseArticle> articles = kbArticleService.getAllArticles();
-        return ResponseEntity.ok(articles);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(articles);
     }
     
+    // Articles have no version column of their own; the table version covers every article
     @GetMapping("/{id}")
-    public ResponseEntity<KnowledgeBaseArticle> getArticleById(@PathVariable Long id) {
+    public ResponseEntity<KnowledgeBaseArticle> getArticleById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(versions.tableTag(ResourceVersions.KNOWLEDGE_BASE))) {
+            return null;
+        }
         Optional<KnowledgeBaseArticle> article = kbArticleService.getArticleById(id);
-        return article.map(ResponseEntity::ok)
+        return article.map(a -> ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(a))
                      .orElse(ResponseEntity.notFound().build());
     }
     
@@ -47,6 +61,13 @@ public class KnowledgeBaseController {
         List<KnowledgeBaseArticle> articles = kbArticleService.searchArticlesByTitle(title);
         return ResponseEntity.ok(articles);
     }
+
+    // Ranked full-text search over title and content; ?title= above keeps the old substring match
+    @GetMapping(value = "/search", params = "q")
+    public ResponseEntity<List<KnowledgeBaseSearchResult>> searchArticlesRanked(@RequestParam String q,
+                                                                                @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(kbArticleService.searchArticles(q, limit));
+    }
     
     @PostMapping
     public ResponseEntity<KnowledgeBaseArticle> createArticle(@RequestBody CreateKnowledgeBaseArticleRequest request) {
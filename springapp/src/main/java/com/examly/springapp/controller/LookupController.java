@@ -2,36 +2,53 @@ package com.examly.springapp.controller;
 
 import java.util.List;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.examly.springapp.model.Category;
 import com.examly.springapp.model.Priority;
-import com.examly.springapp.repository.CategoryRepository;
-import com.examly.springapp.repository.PriorityRepository;
+import com.examly.springapp.service.CategoryService;
+import com.examly.springapp.service.PriorityService;
+import com.examly.springapp.service.ResourceVersions;
 
 @RestController
 @RequestMapping("/api/lookups")
 @CrossOrigin(origins = "http://localhost:3001")
 public class LookupController {
 
-    private final CategoryRepository categoryRepository;
-    private final PriorityRepository priorityRepository;
+    // Both services serve these lists from a coalesced cache that their writes invalidate
+    private final CategoryService categoryService;
+    private final PriorityService priorityService;
+    private final ResourceVersions versions;
 
-    public LookupController(CategoryRepository categoryRepository, PriorityRepository priorityRepository) {
-        this.categoryRepository = categoryRepository;
-        this.priorityRepository = priorityRepository;
+    public LookupController(CategoryService categoryService, PriorityService priorityService,
+                            ResourceVersions versions) {
+        this.categoryService = categoryService;
+        this.priorityService = priorityService;
+        this.versions = versions;
     }
 
+    // Tags come from in-memory table versions, so a matching If-None-Match never reaches the service
     @GetMapping("/categories")
-    public List<Category> categories() {
-        return categoryRepository.findAll();
+    public ResponseEntity<List<Category>> categories(WebRequest request) {
+        if (request.checkNotModified(versions.tableTag(ResourceVersions.CATEGORIES))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate())
+                .body(categoryService.getAllCategories());
     }
 
     @GetMapping("/priorities")
-    public List<Priority> priorities() {
-        return priorityRepository.findAll();
+    public ResponseEntity<List<Priority>> priorities(WebRequest request) {
+        if (request.checkNotModified(versions.tableTag(ResourceVersions.PRIORITIES))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate())
+                .body(priorityService.getAllPriorities());
     }
 }
@@ -36,6 +36,9 @@ public class PriorityController {
         Priority priority = new Priority();
         priority.setName(request.getName());
         priority.setDescription(request.getDescription());
+        priority.setLevel(request.getLevel());
+        priority.setResponseMinutes(request.getResponseMinutes());
+        priority.setResolutionMinutes(request.getResolutionMinutes());
         
         Priority createdPriority = priorityService.createPriority(priority);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdPriority);
@@ -48,6 +51,9 @@ public class PriorityController {
             Priority priority = new Priority();
             priority.setName(request.getName());
             priority.setDescription(request.getDescription());
+            priority.setLevel(request.getLevel());
+            priority.setResponseMinutes(request.getResponseMinutes());
+            priority.setResolutionMinutes(request.getResolutionMinutes());
             
             Priority updatedPriority = priorityService.updatePriority(id, priority);
             return ResponseEntity.ok(updatedPriority);
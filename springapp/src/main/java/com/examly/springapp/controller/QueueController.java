@@ -0,0 +1,33 @@
+package com.examly.springapp.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.examly.springapp.dto.ClaimTicketsRequest;
+import com.examly.springapp.dto.TicketListItem;
+import com.examly.springapp.service.AuthenticatedUser;
+import com.examly.springapp.service.TicketQueueService;
+
+@RestController
+@RequestMapping("/api/queue")
+public class QueueController {
+
+    private final TicketQueueService queueService;
+
+    public QueueController(TicketQueueService queueService) {
+        this.queueService = queueService;
+    }
+
+    // The claimed tickets in queue order; an empty list when nothing is waiting
+    @PostMapping("/claim")
+    public ResponseEntity<List<TicketListItem>> claim(@RequestBody ClaimTicketsRequest req,
+                                                      @AuthenticationPrincipal AuthenticatedUser caller) {
+        return ResponseEntity.ok(queueService.claim(req, caller));
+    }
+}
@@ -1,14 +1,37 @@
 package com.examly.springapp.controller;
 
 import java.util.List;
+import java.util.function.Supplier;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.examly.springapp.dto.BulkTicketResult;
+import com.examly.springapp.dto.BulkTicketUpdateRequest;
+import com.examly.springapp.dto.BulkUpdateResult;
 import com.examly.springapp.dto.CreateTicketRequest;
+import com.examly.springapp.dto.CursorPage;
+import com.examly.springapp.dto.TicketChangeFeed;
+import com.examly.springapp.dto.TicketDetail;
+import com.examly.springapp.dto.TicketFilter;
+import com.examly.springapp.dto.TicketListItem;
+import com.examly.springapp.dto.TransitionTicketStatusRequest;
 import com.examly.springapp.dto.UpdateTicketStatusRequest;
+import com.examly.springapp.exception.ConflictException;
 import com.examly.springapp.model.Ticket;
+import com.examly.springapp.service.AuthenticatedUser;
+import com.examly.springapp.service.IdempotencyService;
+import com.examly.springapp.service.ResourceVersions;
+import com.examly.springapp.service.TicketBulkService;
+import com.examly.springapp.service.TicketEventStream;
 import com.examly.springapp.service.TicketService;
 
 @RestController
@@ -16,45 +39,122 @@ import com.examly.springapp.service.TicketService;
 public class TicketController {
 
     private final TicketService service;
+    private final TicketBulkService bulkService;
+    private final TicketEventStream eventStream;
+    private final ResourceVersions versions;
+    private final IdempotencyService idempotency;
 
-    public TicketController(TicketService service) {
+    public TicketController(TicketService service, TicketBulkService bulkService, TicketEventStream eventStream,
+                            ResourceVersions versions, IdempotencyService idempotency) {
         this.service = service;
+        this.bulkService = bulkService;
+        this.eventStream = eventStream;
+        this.versions = versions;
+        this.idempotency = idempotency;
     }
 
+    // Keyset-paginated by default; ?unpaged=true returns the full list as before.
+    // ?fields=title,status narrows both the query and the JSON to those fields (plus id)
     @GetMapping
-    public ResponseEntity<List<Ticket>> getAllTickets() {
-        List<Ticket> tickets = service.getAllTickets();
-        return ResponseEntity.ok(tickets);
+    public ResponseEntity<?> getAllTickets(@RequestParam(defaultValue = "false") boolean unpaged,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "50") int limit,
+                                           @RequestParam(required = false) String fields,
+                                           TicketFilter filter) {
+        if (fields != null) {
+            return unpaged
+                    ? ResponseEntity.ok(service.getAllTicketFields(fields))
+                    : ResponseEntity.ok(service.getTicketFieldsPage(fields, filter, cursor, limit));
+        }
+        if (unpaged) {
+            List<TicketListItem> tickets = service.getAllTickets();
+            return ResponseEntity.ok(tickets);
+        }
+        CursorPage<TicketListItem> page = service.getTicketsPage(filter, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    // Delta sync: start with since=0, follow nextSince while hasMore, then store nextSince for the next sync
+    @GetMapping("/changes")
+    public ResponseEntity<TicketChangeFeed> getChanges(@RequestParam(required = false) String since,
+                                                       @RequestParam(defaultValue = "200") int limit) {
+        return ResponseEntity.ok(service.getChanges(since, limit));
+    }
+
+    // Server-Sent Events: "ticket" carries a TicketChangedEvent, "resync" means changes were dropped, reload the list
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTicketChanges() {
+        return eventStream.subscribe();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Ticket> getTicketById(@PathVariable Long id) {
-        Ticket ticket = service.getTicketById(id);
-        return ResponseEntity.ok(ticket);
+    public ResponseEntity<TicketDetail> getTicketById(@PathVariable Long id, WebRequest request) {
+        // 304 straight from the version; the detail query and serialization are skipped
+        String etag = versions.ticketTag(id);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        TicketDetail ticket = service.getTicketById(id);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(ticket);
     }
 
     @GetMapping("/search/{id}")
-    public ResponseEntity<Ticket> searchTicketById(@PathVariable Long id) {
-        Ticket ticket = service.getTicketById(id);
+    public ResponseEntity<TicketDetail> searchTicketById(@PathVariable Long id) {
+        TicketDetail ticket = service.getTicketById(id);
         return ResponseEntity.ok(ticket);
     }
 
+    // With an Idempotency-Key, a retry gets the first response back instead of creating another ticket
     @PostMapping
-    public ResponseEntity<Ticket> createTicket(@RequestBody CreateTicketRequest req) {
-        Ticket created = service.createTicket(req);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    public ResponseEntity<?> createTicket(@RequestBody CreateTicketRequest req,
+                                          @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotency.execute("POST /api/tickets", idempotencyKey, req, () -> {
+            Ticket created = service.createTicket(req);
+            return ResponseEntity.status(HttpStatus.CREATED).body(TicketDetail.from(created));
+        });
+    }
+
+    // 201 when every item was created, 207 when some were rejected; see BulkTicketResult per item
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkTicketResult>> createTickets(@RequestBody List<CreateTicketRequest> requests) {
+        List<BulkTicketResult> results = service.createTickets(requests);
+        boolean allCreated = results.stream().allMatch(r -> BulkTicketResult.CREATED.equals(r.getStatus()));
+        return ResponseEntity.status(allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(results);
     }
 
+    @PatchMapping("/bulk/status")
+    public ResponseEntity<BulkUpdateResult> bulkUpdateStatus(@RequestBody BulkTicketUpdateRequest req,
+                                                             @AuthenticationPrincipal AuthenticatedUser caller) {
+        return ResponseEntity.ok(bulkService.updateStatus(req, caller));
+    }
+
+    @PatchMapping("/bulk/assign")
+    public ResponseEntity<BulkUpdateResult> bulkAssign(@RequestBody BulkTicketUpdateRequest req,
+                                                       @AuthenticationPrincipal AuthenticatedUser caller) {
+        return ResponseEntity.ok(bulkService.assign(req, caller));
+    }
+
+    // Writes take an optional If-Match (the ETag from GET /{id} or a previous write); a stale one gets 409
     @PatchMapping("/{id}/status")
-    public ResponseEntity<Ticket> updateTicketStatus(@PathVariable Long id, @RequestBody UpdateTicketStatusRequest req) {
-        Ticket updated = service.updateTicketStatus(id, req);
-        return ResponseEntity.ok(updated);
+    public ResponseEntity<TicketDetail> updateTicketStatus(@PathVariable Long id, @RequestBody UpdateTicketStatusRequest req,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = versions.expectedTicketVersion(id, ifMatch);
+        return written(id, () -> service.updateTicketStatus(id, req, expectedVersion));
+    }
+
+    // {"from": "New", "to": "In Progress"}: 409 with the current ticket when its status is no longer "from"
+    @PostMapping("/{id}/transition")
+    public ResponseEntity<TicketDetail> transitionStatus(@PathVariable Long id, @RequestBody TransitionTicketStatusRequest req,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = versions.expectedTicketVersion(id, ifMatch);
+        return written(id, () -> service.transitionStatus(id, req, expectedVersion));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Ticket> updateTicket(@PathVariable Long id, @RequestBody CreateTicketRequest req) {
-        Ticket updated = service.updateTicket(id, req);
-        return ResponseEntity.ok(updated);
+    public ResponseEntity<TicketDetail> updateTicket(@PathVariable Long id, @RequestBody CreateTicketRequest req,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = versions.expectedTicketVersion(id, ifMatch);
+        return written(id, () -> service.updateTicket(id, req, expectedVersion));
     }
 
     @DeleteMapping("/{id}")
@@ -62,4 +162,19 @@ public class TicketController {
         service.deleteTicket(id);
         return ResponseEntity.noContent().build();
     }
+
+    // The written ticket, as the detail view, with its new ETag. A conflict, whether found by the
+    // service or by the version check at commit, becomes a 409 carrying the ticket as it now is
+    private ResponseEntity<TicketDetail> written(Long id, Supplier<Ticket> write) {
+        Ticket saved;
+        try {
+            saved = write.get();
+        } catch (ConflictException | OptimisticLockingFailureException e) {
+            String message = e instanceof ConflictException ? e.getMessage()
+                    : "Ticket " + id + " was changed by another request";
+            String etag = versions.ticketTag(id);
+            throw new ConflictException(message, service.getTicketById(id), etag);
+        }
+        return ResponseEntity.ok().eTag(versions.ticketTag(id, saved.getVersion())).body(TicketDetail.from(saved));
+    }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.examly.springapp.dto.CreateTicketHistoryRequest;
+import com.examly.springapp.dto.CursorPage;
 import com.examly.springapp.model.TicketHistory;
 import com.examly.springapp.service.TicketHistoryService;
 
@@ -43,14 +44,18 @@ public class TicketHistoryController {
         }
     }
 
+    // Newest first, cursor-paginated by default; ?unpaged=true returns the full timeline as before
     @GetMapping("/ticket/{ticketId}")
-    public ResponseEntity<List<TicketHistory>> getHistoryByTicketId(@PathVariable Long ticketId) {
-        try {
+    public ResponseEntity<?> getHistoryByTicketId(@PathVariable Long ticketId,
+                                                  @RequestParam(defaultValue = "false") boolean unpaged,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "50") int limit) {
+        if (unpaged) {
             List<TicketHistory> history = service.getHistoryByTicketId(ticketId);
             return ResponseEntity.ok(history);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
+        CursorPage<TicketHistory> page = service.getHistoryPage(ticketId, cursor, limit);
+        return ResponseEntity.ok(page);
     }
 
     @PostMapping
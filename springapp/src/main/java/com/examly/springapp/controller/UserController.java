@@ -1,6 +1,5 @@
 package com.examly.springapp.controller;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,8 +22,12 @@ public class UserController {
         this.service = service;
     }
 
+    // ?fields=name,email returns only those fields (plus id); passwordHash can never be requested
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(service.getAllUserFields(fields));
+        }
         try {
             List<User> users = service.getAllUsers();
             return ResponseEntity.ok(users);
@@ -82,19 +85,7 @@ public class UserController {
     @GetMapping("/role-stats")
     public ResponseEntity<Map<String, Object>> getUserRoleStats() {
         try {
-            List<User> allUsers = service.getAllUsers();
-            Map<String, Object> stats = new HashMap<>();
-            
-            // Role breakdown
-            Map<String, Long> roleCounts = new HashMap<>();
-            roleCounts.put("ADMIN", allUsers.stream().filter(u -> u != null && u.getRole() == User.Role.ADMIN).count());
-            roleCounts.put("AGENT", allUsers.stream().filter(u -> u != null && u.getRole() == User.Role.AGENT).count());
-            roleCounts.put("EMPLOYEE", allUsers.stream().filter(u -> u != null && u.getRole() == User.Role.EMPLOYEE).count());
-            
-            stats.put("roleCounts", roleCounts);
-            stats.put("totalUsers", allUsers.size());
-            
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok(service.getRoleStats());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -0,0 +1,16 @@
+package com.examly.springapp.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Attach content the server already stores, identified by its SHA-256, without re-sending the bytes
+@Getter
+@Setter
+@NoArgsConstructor
+public class AttachByDigestRequest {
+    private Long ticketId;
+    private String sha256;
+    private String fileName;
+    private String contentType;
+}
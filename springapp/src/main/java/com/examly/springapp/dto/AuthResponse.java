@@ -5,6 +5,7 @@ public class AuthResponse {
     private String username;
     private String role;
     private String message;
+    private String token;
 
     // Constructors
     public AuthResponse() {}
@@ -16,6 +17,11 @@ public class AuthResponse {
         this.message = message;
     }
 
+    public AuthResponse(Long id, String username, String role, String message, String token) {
+        this(id, username, role, message);
+        this.token = token;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -48,4 +54,12 @@ public class AuthResponse {
     public void setMessage(String message) {
         this.message = message;
     }
-}
\ No newline at end of file
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+}
@@ -0,0 +1,25 @@
+package com.examly.springapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Outcome of one item of POST /api/tickets/bulk, reported in request order
+@Getter
+@AllArgsConstructor
+public class BulkTicketResult {
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private String status;
+    private Long id;
+    private String error;
+
+    public static BulkTicketResult created(int index, Long id) {
+        return new BulkTicketResult(index, CREATED, id, null);
+    }
+
+    public static BulkTicketResult rejected(int index, String error) {
+        return new BulkTicketResult(index, REJECTED, null, error);
+    }
+}
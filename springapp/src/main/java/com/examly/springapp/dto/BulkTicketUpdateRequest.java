@@ -0,0 +1,19 @@
+package com.examly.springapp.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Target tickets by explicit ids or by filter (exactly one); the caller is the actor recorded in ticket history
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkTicketUpdateRequest {
+    private List<Long> ids;
+    private TicketFilter filter;
+    private String status;          // PATCH /bulk/status
+    private Long assignedAgentId;   // PATCH /bulk/assign
+    private String comment;
+}
@@ -0,0 +1,15 @@
+package com.examly.springapp.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// matched = tickets considered, updated = tickets changed; skippedIds is only filled for id-list requests
+@Getter
+@AllArgsConstructor
+public class BulkUpdateResult {
+    private long matched;
+    private long updated;
+    private List<Long> skippedIds;
+}
@@ -0,0 +1,17 @@
+package com.examly.springapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Acknowledges one stored chunk with the SHA-256 the server computed for it
+@Getter
+@AllArgsConstructor
+public class ChunkReceipt {
+    private String uploadId;
+    private int index;
+    private long offset;
+    private long length;
+    private String sha256;
+    private int receivedChunks;
+    private int chunkCount;
+}
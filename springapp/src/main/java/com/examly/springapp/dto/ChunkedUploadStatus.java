@@ -0,0 +1,21 @@
+package com.examly.springapp.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Progress of a chunked upload; a client resuming after a failure re-sends only missingChunks
+@Getter
+@AllArgsConstructor
+public class ChunkedUploadStatus {
+    private String uploadId;
+    private Long ticketId;
+    private String fileName;
+    private long size;
+    private int chunkSize;
+    private int chunkCount;
+    private int receivedChunks;
+    private long bytesReceived;
+    private List<Integer> missingChunks;
+}
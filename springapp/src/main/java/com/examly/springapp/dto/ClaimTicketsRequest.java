@@ -0,0 +1,15 @@
+package com.examly.springapp.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// POST /api/queue/claim: agentId (default: the caller; only an admin may name someone else) takes up to count
+// tickets (default 1) and is recorded as the actor in ticket history
+@Getter
+@Setter
+@NoArgsConstructor
+public class ClaimTicketsRequest {
+    private Long agentId;
+    private Integer count;
+}
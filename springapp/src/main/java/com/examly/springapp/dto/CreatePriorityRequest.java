@@ -12,4 +12,8 @@ import lombok.AllArgsConstructor;
 public class CreatePriorityRequest {
     private String name;
     private String description;
+    private Integer level;  // optional; defaults from the name on create, unchanged on update
+    // Optional SLA targets in minutes (0 = none); null uses the level's default on create, unchanged on update
+    private Integer responseMinutes;
+    private Integer resolutionMinutes;
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.examly.springapp.dto;
 
+import java.util.List;
+
 public class CreateUserRequest {
     private String name;
     private String email;
     private String password;
     private String role;
+    // Agents only: categories they are auto-assigned tickets for; null leaves them unchanged on update
+    private List<Long> skillCategoryIds;
 
     // Constructors
     public CreateUserRequest() {}
@@ -48,4 +52,12 @@ public class CreateUserRequest {
     public void setRole(String role) {
         this.role = role;
     }
+
+    public List<Long> getSkillCategoryIds() {
+        return skillCategoryIds;
+    }
+
+    public void setSkillCategoryIds(List<Long> skillCategoryIds) {
+        this.skillCategoryIds = skillCategoryIds;
+    }
 }
\ No newline at end of file
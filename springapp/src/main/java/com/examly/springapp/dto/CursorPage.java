@@ -0,0 +1,15 @@
+package com.examly.springapp.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// One page of a keyset-paginated listing; pass nextCursor back as ?cursor= to continue
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,18 @@
+package com.examly.springapp.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// size is the total file length; chunkSize is optional and clamped by the server; sha256 is checked at completion
+@Getter
+@Setter
+@NoArgsConstructor
+public class InitChunkedUploadRequest {
+    private Long ticketId;
+    private String fileName;
+    private String contentType;
+    private Long size;
+    private Integer chunkSize;
+    private String sha256;
+}
@@ -0,0 +1,14 @@
+package com.examly.springapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// One ranked hit from /api/knowledge-base/search?q=; snippet is a window of content around the first match
+@Getter
+@AllArgsConstructor
+public class KnowledgeBaseSearchResult {
+    private Long id;
+    private String title;
+    private double score;
+    private String snippet;
+}
@@ -0,0 +1,20 @@
+package com.examly.springapp.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One page of /api/tickets/changes. upserts are tickets created or changed since the
+ * cursor, deleted are ids of tickets removed since then. Pass nextSince back as ?since=
+ * until hasMore is false, then keep it for the next sync.
+ */
+@Getter
+@AllArgsConstructor
+public class TicketChangeFeed {
+    private List<TicketFeedItem> upserts;
+    private List<Long> deleted;
+    private String nextSince;
+    private boolean hasMore;
+}
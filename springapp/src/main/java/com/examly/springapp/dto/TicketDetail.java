@@ -0,0 +1,44 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDateTime;
+
+import com.examly.springapp.model.Ticket;
+import com.examly.springapp.model.TicketStatus;
+import com.examly.springapp.model.User;
+
+import lombok.Getter;
+
+// Single-ticket view: the list fields plus user emails, resolvedAt and the version If-Match compares against
+@Getter
+public class TicketDetail extends TicketListItem {
+    private final LocalDateTime resolvedAt;
+    private final Long version;
+
+    // Argument order is part of the JPQL in TicketRepository.findDetailViewById
+    public TicketDetail(Long id, String title, String description, TicketStatus status,
+                        Long priorityId, String priority, Long categoryId, String category,
+                        Long submitterId, String submitterName, String submitterEmail,
+                        Long assignedAgentId, String assignedAgentName, String assignedAgentEmail,
+                        LocalDateTime createdAt, LocalDateTime resolvedAt, Long version) {
+        super(id, title, description, status, priorityId, priority, categoryId, category,
+                UserSummary.of(submitterId, submitterName, submitterEmail),
+                UserSummary.of(assignedAgentId, assignedAgentName, assignedAgentEmail),
+                createdAt);
+        this.resolvedAt = resolvedAt;
+        this.version = version;
+    }
+
+    // What the write endpoints return: the ticket they just saved, whose references are all loaded
+    public static TicketDetail from(Ticket ticket) {
+        User submitter = ticket.getSubmitter();
+        User agent = ticket.getAssignedAgent();
+        return new TicketDetail(ticket.getId(), ticket.getTitle(), ticket.getDescription(), ticket.getStatus(),
+                ticket.getPriority() != null ? ticket.getPriority().getId() : null, ticket.getPriorityName(),
+                ticket.getCategory() != null ? ticket.getCategory().getId() : null, ticket.getCategoryName(),
+                submitter != null ? submitter.getId() : null, submitter != null ? submitter.getName() : null,
+                submitter != null ? submitter.getEmail() : null,
+                agent != null ? agent.getId() : null, agent != null ? agent.getName() : null,
+                agent != null ? agent.getEmail() : null,
+                ticket.getCreatedAt(), ticket.getResolvedAt(), ticket.getVersion());
+    }
+}
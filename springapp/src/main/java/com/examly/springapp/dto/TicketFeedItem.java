@@ -0,0 +1,26 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDateTime;
+
+import com.examly.springapp.model.TicketStatus;
+
+import lombok.Getter;
+
+// A changed ticket in /api/tickets/changes: the list row plus the version it was changed at
+@Getter
+public class TicketFeedItem extends TicketListItem {
+    private final Long changeVersion;
+
+    // Argument order is part of the JPQL in TicketRepository.findChangesAfter
+    public TicketFeedItem(Long id, String title, String description, TicketStatus status,
+                          Long priorityId, String priority, Long categoryId, String category,
+                          Long submitterId, String submitterName,
+                          Long assignedAgentId, String assignedAgentName,
+                          LocalDateTime createdAt, Long changeVersion) {
+        super(id, title, description, status, priorityId, priority, categoryId, category,
+                UserSummary.of(submitterId, submitterName, null),
+                UserSummary.of(assignedAgentId, assignedAgentName, null),
+                createdAt);
+        this.changeVersion = changeVersion;
+    }
+}
@@ -0,0 +1,27 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Optional filters for ticket listings; null fields are ignored
+@Getter
+@Setter
+@NoArgsConstructor
+public class TicketFilter {
+    private String status;
+    private Long priorityId;
+    private Long categoryId;
+    private Long submitterId;
+    private Long assignedAgentId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom; // inclusive
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo; // exclusive
+}
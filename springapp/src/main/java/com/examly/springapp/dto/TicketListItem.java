@@ -0,0 +1,76 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDateTime;
+
+import com.examly.springapp.model.Ticket;
+import com.examly.springapp.model.TicketStatus;
+import com.examly.springapp.model.User;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Getter;
+
+/**
+ * One row of the ticket list. Filled by a constructor projection, so the query reads only
+ * these columns and no Ticket or User entity is loaded. priority and category are names,
+ * matching the JSON the list has always returned; their ids are carried but not serialized.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TicketListItem {
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final TicketStatus status;
+    private final String priority;
+    private final String category;
+    // Stable keys for the same references, e.g. for DashboardCounters; names can be renamed
+    @JsonIgnore
+    private final Long priorityId;
+    @JsonIgnore
+    private final Long categoryId;
+    private final UserSummary submitter;
+    private final UserSummary assignedAgent;
+    private final LocalDateTime createdAt;
+
+    // Argument order is part of the JPQL in TicketRepository and TicketRepositoryImpl
+    public TicketListItem(Long id, String title, String description, TicketStatus status,
+                          Long priorityId, String priority, Long categoryId, String category,
+                          Long submitterId, String submitterName,
+                          Long assignedAgentId, String assignedAgentName,
+                          LocalDateTime createdAt) {
+        this(id, title, description, status, priorityId, priority, categoryId, category,
+                UserSummary.of(submitterId, submitterName, null),
+                UserSummary.of(assignedAgentId, assignedAgentName, null),
+                createdAt);
+    }
+
+    // For a managed ticket whose priority, category and users are already loaded, e.g. right after a write
+    public static TicketListItem from(Ticket ticket) {
+        User submitter = ticket.getSubmitter();
+        User agent = ticket.getAssignedAgent();
+        return new TicketListItem(ticket.getId(), ticket.getTitle(), ticket.getDescription(), ticket.getStatus(),
+                ticket.getPriority() != null ? ticket.getPriority().getId() : null, ticket.getPriorityName(),
+                ticket.getCategory() != null ? ticket.getCategory().getId() : null, ticket.getCategoryName(),
+                submitter != null ? submitter.getId() : null, submitter != null ? submitter.getName() : null,
+                agent != null ? agent.getId() : null, agent != null ? agent.getName() : null,
+                ticket.getCreatedAt());
+    }
+
+    protected TicketListItem(Long id, String title, String description, TicketStatus status,
+                             Long priorityId, String priority, Long categoryId, String category,
+                             UserSummary submitter, UserSummary assignedAgent,
+                             LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.category = category;
+        this.priorityId = priorityId;
+        this.categoryId = categoryId;
+        this.submitter = submitter;
+        this.assignedAgent = assignedAgent;
+        this.createdAt = createdAt;
+    }
+}
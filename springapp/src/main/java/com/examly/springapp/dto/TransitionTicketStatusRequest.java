@@ -0,0 +1,14 @@
+package com.examly.springapp.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// POST /api/tickets/{id}/transition: moves the ticket to "to" only while its status is still "from"
+@Getter
+@Setter
+@NoArgsConstructor
+public class TransitionTicketStatusRequest {
+    private String from;
+    private String to;
+}
@@ -0,0 +1,21 @@
+package com.examly.springapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// The part of a user a ticket view shows; never carries credentials. email is only set on the detail view
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserSummary {
+    private Long id;
+    private String name;
+    private String email;
+
+    // Left-joined user columns are all null when the ticket has no such user
+    static UserSummary of(Long id, String name, String email) {
+        return id == null ? null : new UserSummary(id, name, email);
+    }
+}
@@ -0,0 +1,24 @@
+package com.examly.springapp.event;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by SlaScheduler inside the transaction that records a missed SLA target, so
+ * escalation listeners change the ticket in the same commit (see SlaEscalationHandler).
+ */
+@Getter
+@AllArgsConstructor
+public class SlaBreachedEvent {
+
+    public enum Target {
+        RESPONSE, RESOLUTION
+    }
+
+    private Long ticketId;
+    private Target target;
+    private LocalDateTime dueAt;
+    private LocalDateTime breachedAt;
+}
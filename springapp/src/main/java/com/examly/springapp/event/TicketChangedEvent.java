@@ -0,0 +1,44 @@
+package com.examly.springapp.event;
+
+import java.time.LocalDateTime;
+
+import com.examly.springapp.dto.TicketListItem;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the ticket services when a ticket is created, changed or deleted, and
+ * delivered to /api/tickets/stream subscribers once the transaction commits.
+ * ticket is the row as the list view shows it after the change; it is null for DELETED.
+ * previous is the row before the change (null for CREATED); it lets listeners such as
+ * DashboardCounters move counts between keys and is not sent to stream clients.
+ */
+@Getter
+@AllArgsConstructor
+public class TicketChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, STATUS_CHANGED, ASSIGNED, ESCALATED, DELETED
+    }
+
+    private Type type;
+    private Long ticketId;
+    private TicketListItem ticket;
+    @JsonIgnore
+    private TicketListItem previous;
+    private LocalDateTime occurredAt;
+
+    public static TicketChangedEvent created(TicketListItem ticket) {
+        return new TicketChangedEvent(Type.CREATED, ticket.getId(), ticket, null, LocalDateTime.now());
+    }
+
+    public static TicketChangedEvent changed(Type type, TicketListItem previous, TicketListItem ticket) {
+        return new TicketChangedEvent(type, ticket.getId(), ticket, previous, LocalDateTime.now());
+    }
+
+    public static TicketChangedEvent deleted(TicketListItem previous) {
+        return new TicketChangedEvent(Type.DELETED, previous.getId(), null, previous, LocalDateTime.now());
+    }
+}
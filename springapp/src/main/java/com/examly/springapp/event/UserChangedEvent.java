@@ -0,0 +1,15 @@
+package com.examly.springapp.event;
+
+import com.examly.springapp.model.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published by UserServiceImpl on create, update and delete; previousRole is null for a new user, role for a deleted one
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+    private Long userId;
+    private User.Role previousRole;
+    private User.Role role;
+}
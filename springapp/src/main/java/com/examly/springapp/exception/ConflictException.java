@@ -0,0 +1,21 @@
+package com.examly.springapp.exception;
+
+import lombok.Getter;
+
+// 409: the resource changed since the client read it. current and etag, when set, describe
+// the state that won, so the client can merge and retry without another GET
+@Getter
+public class ConflictException extends RuntimeException {
+    private final transient Object current;
+    private final String etag;
+
+    public ConflictException(String message) {
+        this(message, null, null);
+    }
+
+    public ConflictException(String message, Object current, String etag) {
+        super(message);
+        this.current = current;
+        this.etag = etag;
+    }
+}
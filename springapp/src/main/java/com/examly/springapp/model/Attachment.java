@@ -5,10 +5,16 @@ import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
 import javax.persistence.*;
 
 @Entity
-@Table(name = "attachments")
+// storage_key is looked up when a pre-content-addressing file may be deleted
+@Table(name = "attachments", indexes = @Index(name = "idx_attachments_storage_key", columnList = "storage_key"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,6 +24,7 @@ public class Attachment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ticket_id", referencedColumnName = "id", nullable = false)
     private Ticket ticket;
@@ -27,4 +34,21 @@ public class Attachment {
     
     @Column(name = "file_name", nullable = false)
     private String fileName;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "size_bytes")
+    private Long size;
+
+    // BlobStore key of the stored bytes; null for rows created with only a URL
+    @JsonIgnore
+    @Column(name = "storage_key", length = 64)
+    private String storageKey;
+
+    // Always {"id": ...}, loaded or not, so no ticket or user fields ride along with an attachment
+    @JsonProperty("ticket")
+    public Map<String, Long> getTicketRef() {
+        return ticket != null ? Map.of("id", ticket.getId()) : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.examly.springapp.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// One stored file per distinct content; refCount counts the attachments pointing at it
+@Entity
+@Table(name = "blobs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ContentBlob {
+    // Lower-case hex SHA-256 of the content, also the BlobStore key
+    @Id
+    @Column(length = 64)
+    private String digest;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public ContentBlob(String digest, long size) {
+        this.digest = digest;
+        this.size = size;
+        this.refCount = 1;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,76 @@
+package com.examly.springapp.model;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PostLoad;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// The stored response for one Idempotency-Key, replayed to retries until expiresAt (see IdempotencyService)
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+    // Lower-case hex SHA-256 of the endpoint, the caller and the key
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    // SHA-256 of the request body, so a key reused for a different request is refused
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @Column(name = "status_code", nullable = false)
+    private int statusCode;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Always INSERTed, never merged: a second commit of the same key must fail, not overwrite the first
+    @Transient
+    private boolean fresh = true;
+
+    public IdempotencyRecord(String id, String requestHash, int statusCode, String responseBody,
+                             LocalDateTime expiresAt) {
+        this.id = id;
+        this.requestHash = requestHash;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.createdAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    public boolean isExpired() {
+        return expiresAt.isBefore(LocalDateTime.now());
+    }
+
+    @PostLoad
+    protected void onLoad() {
+        fresh = false;
+    }
+}
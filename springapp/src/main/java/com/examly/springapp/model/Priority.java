@@ -6,6 +6,9 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import javax.persistence.*;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
 
 @Entity
 @Table(name = "priorities")
@@ -22,4 +25,41 @@ public class Priority {
     private String name;
     
     private String description;
+
+    // Queue order: higher levels are claimed first. Copied onto tickets as priority_level
+    private Integer level;
+
+    // SLA targets in minutes from creation: leaving New, and reaching Resolved or Closed.
+    // Null uses the default for the level; 0 means no target
+    @Column(name = "response_minutes")
+    private Integer responseMinutes;
+
+    @Column(name = "resolution_minutes")
+    private Integer resolutionMinutes;
+
+    private static final Map<String, Integer> DEFAULT_LEVELS = Map.of(
+            "LOW", 1, "MEDIUM", 2, "HIGH", 3, "URGENT", 4, "CRITICAL", 5);
+    // Indexed by level; levels past the end get the last entry
+    private static final int[] DEFAULT_RESPONSE_MINUTES = {0, 480, 240, 60, 30, 15};
+    private static final int[] DEFAULT_RESOLUTION_MINUTES = {0, 10080, 4320, 1440, 480, 240};
+
+    // Level for a priority created without one; unknown names rank below LOW
+    public static int defaultLevel(String name) {
+        return name == null ? 0 : DEFAULT_LEVELS.getOrDefault(name.trim().toUpperCase(Locale.ROOT), 0);
+    }
+
+    // Effective targets; null when this priority has none
+    public Duration responseTarget() {
+        return target(responseMinutes, DEFAULT_RESPONSE_MINUTES);
+    }
+
+    public Duration resolutionTarget() {
+        return target(resolutionMinutes, DEFAULT_RESOLUTION_MINUTES);
+    }
+
+    private Duration target(Integer minutes, int[] defaults) {
+        int effective = minutes != null ? minutes
+                : defaults[Math.max(0, Math.min(level != null ? level : 0, defaults.length - 1))];
+        return effective > 0 ? Duration.ofMinutes(effective) : null;
+    }
 }
\ No newline at end of file
@@ -7,17 +7,45 @@ import lombok.Setter;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
-@Table(name = "tickets")
+// Fetch plan for full-ticket reads; associations are LAZY so each query pulls only what its graph names
+@NamedEntityGraph(name = Ticket.GRAPH_DETAIL, attributeNodes = {
+        @NamedAttributeNode("priority"),
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("submitter"),
+        @NamedAttributeNode("assignedAgent")
+})
+@Table(name = "tickets", indexes = {
+        @Index(name = "idx_tickets_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_tickets_status", columnList = "status, id"),
+        @Index(name = "idx_tickets_priority", columnList = "priority_id, id"),
+        @Index(name = "idx_tickets_category", columnList = "category_id, id"),
+        @Index(name = "idx_tickets_submitter", columnList = "submitter_id, id"),
+        @Index(name = "idx_tickets_assigned_agent", columnList = "assigned_agent_id, id"),
+        @Index(name = "idx_tickets_change_version", columnList = "change_version, id"),
+        // Claim order for /api/queue/claim, so SKIP LOCKED reads only the rows it returns
+        @Index(name = "idx_tickets_queue", columnList = "status, assigned_agent_id, priority_level DESC, created_at, id"),
+        // SlaScheduler rebuilds its timers from this index on startup
+        @Index(name = "idx_tickets_sla_due", columnList = "sla_due_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Ticket {
+    // Single-ticket reads and writes that return the full ticket
+    public static final String GRAPH_DETAIL = "Ticket.detail";
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled table generator instead of IDENTITY so Hibernate can batch INSERTs (see IdGeneratorAligner)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ticket_id")
+    @TableGenerator(name = "ticket_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "tickets", allocationSize = Ticket.ID_ALLOCATION_SIZE)
     private Long id;
     
     @Column(nullable = false)
@@ -27,22 +55,22 @@ public class Ticket {
     private String description;
     
     // Relational priority (FK priorities.id)
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "priority_id")
     private Priority priority;
 
     // Relational category (FK categories.id)
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 
     // Submitter (FK users.id)
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "submitter_id")
     private User submitter;
 
     // Assigned agent (FK users.id) nullable
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_agent_id")
     private User assignedAgent;
     
@@ -55,12 +83,50 @@ public class Ticket {
     
     @Column(name = "resolved_at")
     private LocalDateTime resolvedAt;
+
+    // Stamped from TicketChangeVersions on every write; /api/tickets/changes pages by (changeVersion, id)
+    @Column(name = "change_version")
+    private Long changeVersion;
+
+    // Optimistic lock: every write bumps it, and PUT/PATCH with If-Match only apply to this version.
+    // The default fills rows that predate the column when ddl-auto adds it
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Copy of priority.level kept on the row so the work queue can be read in index order
+    @JsonIgnore
+    @Column(name = "priority_level")
+    private Integer priorityLevel;
     
+    // SLA deadlines from the priority's targets, and when each was found missed (see SlaScheduler)
+    @Column(name = "response_due_at")
+    private LocalDateTime responseDueAt;
+
+    @Column(name = "resolution_due_at")
+    private LocalDateTime resolutionDueAt;
+
+    @Column(name = "response_breached_at")
+    private LocalDateTime responseBreachedAt;
+
+    @Column(name = "resolution_breached_at")
+    private LocalDateTime resolutionBreachedAt;
+
+    // Earliest deadline still pending; null once none is
+    @JsonIgnore
+    @Column(name = "sla_due_at")
+    private LocalDateTime slaDueAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
     }
 
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+        this.priorityLevel = priority != null ? priority.getLevel() : null;
+    }
+
     // Backward-compatible JSON fields exposing names instead of nested objects
     @JsonProperty("priority")
     public String getPriorityName() {
@@ -9,14 +9,22 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "ticket_history")
+// Serves the per-ticket history timeline newest-first, paged by (timestamp, id)
+@Table(name = "ticket_history", indexes = {
+        @Index(name = "idx_ticket_history_ticket_time", columnList = "ticket_id, timestamp DESC, id DESC")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class TicketHistory {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled table generator so bulk operations can batch history INSERTs
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ticket_history_id")
+    @TableGenerator(name = "ticket_history_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "ticket_history", allocationSize = TicketHistory.ID_ALLOCATION_SIZE)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
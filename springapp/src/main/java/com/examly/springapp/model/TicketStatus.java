@@ -1,5 +1,8 @@
 package com.examly.springapp.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 import com.fasterxml.jackson.annotation.JsonValue;
 
 public enum TicketStatus {
@@ -43,6 +46,31 @@ public enum TicketStatus {
         throw new IllegalArgumentException("Invalid status: " + raw + ". Allowed: " + allowedList());
     }
 
+    // Workflow rules for status changes; moving to the same status is not a transition
+    public boolean canTransitionTo(TicketStatus target) {
+        switch (this) {
+            case New:
+                return target == In_Progress || target == Resolved || target == Closed;
+            case In_Progress:
+                return target == New || target == Resolved || target == Closed;
+            case Resolved:
+                return target == In_Progress || target == Closed;
+            case Closed:
+                return target == In_Progress;
+            default:
+                return false;
+        }
+    }
+
+    // Statuses a ticket may be in for a move to target to be valid
+    public static Set<TicketStatus> sourcesFor(TicketStatus target) {
+        Set<TicketStatus> sources = EnumSet.noneOf(TicketStatus.class);
+        for (TicketStatus s : values()) {
+            if (s.canTransitionTo(target)) sources.add(s);
+        }
+        return sources;
+    }
+
     public static String allowedList() {
         return "New, In_Progress (In Progress), Resolved, Closed (aliases: OPEN=>New, INPROGRESS=>In_Progress)";
     }
@@ -0,0 +1,35 @@
+package com.examly.springapp.model;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Marks a deleted ticket so /api/tickets/changes can tell syncing clients to drop it
+@Entity
+@Table(name = "ticket_tombstones", indexes = {
+        @Index(name = "idx_ticket_tombstones_version", columnList = "change_version, ticket_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketTombstone {
+    @Id
+    @Column(name = "ticket_id")
+    private Long ticketId;
+
+    @Column(name = "change_version", nullable = false)
+    private Long changeVersion;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -7,9 +7,17 @@ import lombok.AllArgsConstructor;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
-@Table(name = "users")
+// email is unique through its column; name is unique so login by name resolves to one row
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_name", columnNames = "name")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,6 +30,8 @@ public class User {
     @Column(unique = true, nullable = false)
     private String email;
     
+    // Never serialized: responses, stored idempotent replays and logs must not carry it
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(name = "password_hash", nullable = false)
     private String passwordHash;
     
@@ -37,6 +47,13 @@ public class User {
     
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
+
+    // Categories an agent is auto-assigned tickets for; empty means any category
+    @JsonIgnore
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "agent_skills", joinColumns = @JoinColumn(name = "user_id"))
+    @Column(name = "category_id")
+    private Set<Long> skillCategoryIds = new HashSet<>();
     
     public enum Role {
         ADMIN, AGENT, EMPLOYEE
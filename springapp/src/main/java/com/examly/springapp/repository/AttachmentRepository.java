@@ -8,4 +8,6 @@ import com.examly.springapp.model.Attachment;
 @Repository
 public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
     List<Attachment> findByTicketId(Long ticketId);
+
+    boolean existsByStorageKey(String storageKey);
 }
\ No newline at end of file
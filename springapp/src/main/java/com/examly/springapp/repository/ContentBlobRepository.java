@@ -0,0 +1,25 @@
+package com.examly.springapp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.examly.springapp.model.ContentBlob;
+
+@Repository
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, String> {
+    // Reference counts are changed in SQL so concurrent writers never lose an update
+
+    @Modifying
+    @Query("update ContentBlob b set b.refCount = b.refCount + 1 where b.digest = :digest")
+    int incrementRefCount(@Param("digest") String digest);
+
+    @Modifying
+    @Query("update ContentBlob b set b.refCount = b.refCount - 1 where b.digest = :digest and b.refCount > 0")
+    int decrementRefCount(@Param("digest") String digest);
+
+    @Modifying
+    @Query("delete from ContentBlob b where b.digest = :digest and b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("digest") String digest);
+}
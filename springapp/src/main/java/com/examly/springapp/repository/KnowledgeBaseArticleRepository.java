@@ -1,6 +1,7 @@
 package com.examly.springapp.repository;
 
 import com.examly.springapp.model.KnowledgeBaseArticle;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -9,4 +10,7 @@ import java.util.List;
 public interface KnowledgeBaseArticleRepository extends JpaRepository<KnowledgeBaseArticle, Long> {
     List<KnowledgeBaseArticle> findByCategoryId(Long categoryId);
     List<KnowledgeBaseArticle> findByTitleContainingIgnoreCase(String title);
+
+    // Keyset walk used to build the search index in batches
+    List<KnowledgeBaseArticle> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -0,0 +1,41 @@
+package com.examly.springapp.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.Tuple;
+
+// Turns tuple rows into JSON-ready maps; a key "a.b" nests b under a, and a nested
+// object whose id came back null (the left join matched nothing) is written as null
+final class SparseRows {
+
+    private SparseRows() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Map<String, Object>> toMaps(List<Tuple> rows, List<String> keys) {
+        List<Map<String, Object>> maps = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (int i = 0; i < keys.size(); i++) {
+                String key = keys.get(i);
+                int dot = key.indexOf('.');
+                if (dot < 0) {
+                    map.put(key, row.get(i));
+                    continue;
+                }
+                String parent = key.substring(0, dot);
+                String child = key.substring(dot + 1);
+                if (child.equals("id") && row.get(i) == null) {
+                    map.put(parent, null);
+                } else if (map.get(parent) instanceof Map || !map.containsKey(parent)) {
+                    ((Map<String, Object>) map.computeIfAbsent(parent, k -> new LinkedHashMap<>())).put(child, row.get(i));
+                }
+            }
+            maps.add(map);
+        }
+        return maps;
+    }
+}
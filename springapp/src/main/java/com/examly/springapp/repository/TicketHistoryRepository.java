@@ -1,11 +1,28 @@
 package com.examly.springapp.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.examly.springapp.model.TicketHistory;
 
 @Repository
 public interface TicketHistoryRepository extends JpaRepository<TicketHistory, Long> {
     List<TicketHistory> findByTicketId(Long ticketId);
-}
\ No newline at end of file
+
+    // Newest first; both walk idx_ticket_history_ticket_time
+    List<TicketHistory> findByTicketIdOrderByTimestampDescIdDesc(Long ticketId);
+
+    List<TicketHistory> findByTicketIdOrderByTimestampDescIdDesc(Long ticketId, Pageable pageable);
+
+    @Query("select h from TicketHistory h where h.ticket.id = :ticketId"
+            + " and (h.timestamp < :timestamp or (h.timestamp = :timestamp and h.id < :id))"
+            + " order by h.timestamp desc, h.id desc")
+    List<TicketHistory> findPageAfter(@Param("ticketId") Long ticketId,
+                                      @Param("timestamp") LocalDateTime timestamp,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+}
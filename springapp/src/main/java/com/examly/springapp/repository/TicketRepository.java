@@ -1,9 +1,135 @@
 package com.examly.springapp.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.examly.springapp.dto.TicketDetail;
+import com.examly.springapp.dto.TicketFeedItem;
+import com.examly.springapp.dto.TicketListItem;
 import com.examly.springapp.model.Ticket;
+import com.examly.springapp.model.TicketStatus;
+import com.examly.springapp.model.User;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, TicketRepositoryCustom {
+
+    // Seeds and reconciles DashboardCounters; rows are [status, priority id, category id, agent id, count]
+    @Query("select t.status, p.id, c.id, a.id, count(t) from Ticket t left join t.priority p "
+            + "left join t.category c left join t.assignedAgent a group by t.status, p.id, c.id, a.id")
+    List<Object[]> countGroupedByDashboardKey();
+
+    // Newest tickets first, walking idx_tickets_created_at backwards
+    @Query("select new com.examly.springapp.dto.TicketListItem(t.id, t.title, t.description, t.status, "
+            + "p.id, p.name, c.id, c.name, s.id, s.name, a.id, a.name, t.createdAt) "
+            + "from Ticket t left join t.priority p left join t.category c "
+            + "left join t.submitter s left join t.assignedAgent a order by t.createdAt desc, t.id desc")
+    List<TicketListItem> findRecentListItems(Pageable pageable);
+
+    // Ticket views read only the columns their DTOs carry; left joins keep tickets without a user or lookup
+    @Query("select new com.examly.springapp.dto.TicketListItem(t.id, t.title, t.description, t.status, "
+            + "p.id, p.name, c.id, c.name, s.id, s.name, a.id, a.name, t.createdAt) "
+            + "from Ticket t left join t.priority p left join t.category c "
+            + "left join t.submitter s left join t.assignedAgent a")
+    List<TicketListItem> findAllListItems();
+
+    @Query("select new com.examly.springapp.dto.TicketListItem(t.id, t.title, t.description, t.status, "
+            + "p.id, p.name, c.id, c.name, s.id, s.name, a.id, a.name, t.createdAt) "
+            + "from Ticket t left join t.priority p left join t.category c "
+            + "left join t.submitter s left join t.assignedAgent a where t.id in :ids")
+    List<TicketListItem> findListItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Change feed page in (changeVersion, id) order, stopping at upTo so uncommitted versions are never skipped
+    @Query("select new com.examly.springapp.dto.TicketFeedItem(t.id, t.title, t.description, t.status, "
+            + "p.id, p.name, c.id, c.name, s.id, s.name, a.id, a.name, t.createdAt, t.changeVersion) "
+            + "from Ticket t left join t.priority p left join t.category c "
+            + "left join t.submitter s left join t.assignedAgent a "
+            + "where (t.changeVersion > :version or (t.changeVersion = :version and t.id > :afterId)) "
+            + "and t.changeVersion <= :upTo order by t.changeVersion asc, t.id asc")
+    List<TicketFeedItem> findChangesAfter(@Param("version") long version, @Param("afterId") long afterId,
+                                          @Param("upTo") long upTo, Pageable pageable);
+
+    @Query("select new com.examly.springapp.dto.TicketDetail(t.id, t.title, t.description, t.status, "
+            + "p.id, p.name, c.id, c.name, s.id, s.name, s.email, a.id, a.name, a.email, t.createdAt, t.resolvedAt, t.version) "
+            + "from Ticket t left join t.priority p left join t.category c "
+            + "left join t.submitter s left join t.assignedAgent a where t.id = :id")
+    Optional<TicketDetail> findDetailViewById(@Param("id") Long id);
+
+    // Optimistic-lock version behind the detail view's ETag and If-Match
+    @Query("select t.version from Ticket t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @EntityGraph(Ticket.GRAPH_DETAIL)
+    Optional<Ticket> findDetailById(Long id);
+
+    // Row lock on the ticket alone; a fetch join here would lock the joined users and reference rows too
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Ticket t where t.id = :id")
+    Optional<Ticket> lockById(@Param("id") Long id);
+
+    // Bulk operations: lock the chunk's rows, then change them with one UPDATE. Rows are [id, status].
+    // The UPDATEs bump version themselves, so optimistic writers holding an older copy get a conflict
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id, t.status from Ticket t where t.id in :ids and t.status in :statuses")
+    List<Object[]> lockStatusesByIdIn(@Param("ids") Collection<Long> ids,
+                                      @Param("statuses") Collection<TicketStatus> statuses);
+
+    @Modifying
+    @Query("update Ticket t set t.status = :status, t.resolvedAt = coalesce(t.resolvedAt, :resolvedAt), "
+            + "t.changeVersion = :changeVersion, t.version = t.version + 1 where t.id in :ids and t.status in :from")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("from") Collection<TicketStatus> from,
+                           @Param("status") TicketStatus status,
+                           @Param("resolvedAt") LocalDateTime resolvedAt,
+                           @Param("changeVersion") long changeVersion);
+
+    // Rows are [id, assigned agent id or null]
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id, t.assignedAgent.id from Ticket t where t.id in :ids")
+    List<Object[]> lockAssignmentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Ticket t set t.assignedAgent = :agent, t.changeVersion = :changeVersion, t.version = t.version + 1 "
+            + "where t.id in :ids")
+    int updateAssignedAgentByIdIn(@Param("ids") Collection<Long> ids, @Param("agent") User agent,
+                                  @Param("changeVersion") long changeVersion);
+
+    // Work queue: the next unassigned tickets in claim order, locked. Lock timeout -2 is Hibernate's
+    // SKIP_LOCKED, rendered as FOR UPDATE SKIP LOCKED on MySQL 8: rows another claimer holds are skipped
+    // rather than waited on, and idx_tickets_queue keeps the scan to the rows returned
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("select t.id from Ticket t where t.status = :status and t.assignedAgent is null "
+            + "order by t.priorityLevel desc, t.createdAt, t.id")
+    List<Long> lockNextUnassigned(@Param("status") TicketStatus status, Pageable pageable);
+
+    // Open workload per agent for the assignment engine. Rows are [agent id, count]
+    @Query("select t.assignedAgent.id, count(t) from Ticket t "
+            + "where t.assignedAgent is not null and t.status in :statuses group by t.assignedAgent.id")
+    List<Object[]> countByAssignedAgentAndStatusIn(@Param("statuses") Collection<TicketStatus> statuses);
+
+    // SLA bookkeeping only: sla_due_at is never sent to clients, so the version is left alone
+    @Modifying
+    @Query("update Ticket t set t.slaDueAt = :due where t.id = :id")
+    int updateSlaDueAt(@Param("id") Long id, @Param("due") LocalDateTime due);
+
+    // Bumps version and change version like the bulk UPDATEs above; callers evict cached ticket versions
+    @Modifying
+    @Query("update Ticket t set t.priorityLevel = :level, t.changeVersion = :changeVersion, t.version = t.version + 1 "
+            + "where t.priority.id = :priorityId")
+    int updatePriorityLevel(@Param("priorityId") Long priorityId, @Param("level") Integer level,
+                            @Param("changeVersion") long changeVersion);
 }
@@ -0,0 +1,27 @@
+package com.examly.springapp.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.examly.springapp.model.TicketStatus;
+import com.examly.springapp.dto.TicketFilter;
+import com.examly.springapp.dto.TicketListItem;
+
+public interface TicketRepositoryCustom {
+
+    // Fields a ?fields= request may name; submitter and assignedAgent are written as {id, name}
+    List<String> SPARSE_FIELDS = List.of("id", "title", "description", "status", "priority", "category",
+            "submitter", "assignedAgent", "createdAt", "resolvedAt");
+
+    // Keyset page ordered by id DESC; afterId is the last id of the previous page (null for the first page)
+    List<TicketListItem> findPage(TicketFilter filter, TicketStatus status, Long afterId, int limit);
+
+    // Same keyset walk selecting only the given SPARSE_FIELDS; associations not asked for are not joined.
+    // limit <= 0 returns every matching row
+    List<Map<String, Object>> findFieldsPage(Set<String> fields, TicketFilter filter, TicketStatus status,
+                                             Long afterId, int limit);
+
+    // Same keyset walk returning ids only, used by set-based bulk operations
+    List<Long> findIdPage(TicketFilter filter, TicketStatus status, Long afterId, int limit);
+}
@@ -0,0 +1,144 @@
+package com.examly.springapp.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import com.examly.springapp.dto.TicketFilter;
+import com.examly.springapp.dto.TicketListItem;
+import com.examly.springapp.model.Category;
+import com.examly.springapp.model.Priority;
+import com.examly.springapp.model.Ticket;
+import com.examly.springapp.model.TicketStatus;
+import com.examly.springapp.model.User;
+
+public class TicketRepositoryImpl implements TicketRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TicketListItem> findPage(TicketFilter filter, TicketStatus status, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TicketListItem> query = cb.createQuery(TicketListItem.class);
+        Root<Ticket> ticket = query.from(Ticket.class);
+        Join<Ticket, Priority> priority = ticket.join("priority", JoinType.LEFT);
+        Join<Ticket, Category> category = ticket.join("category", JoinType.LEFT);
+        Join<Ticket, User> submitter = ticket.join("submitter", JoinType.LEFT);
+        Join<Ticket, User> agent = ticket.join("assignedAgent", JoinType.LEFT);
+
+        // Same columns, in the same order, as TicketRepository.findAllListItems
+        query.select(cb.construct(TicketListItem.class,
+                        ticket.get("id"), ticket.get("title"), ticket.get("description"), ticket.get("status"),
+                        priority.get("id"), priority.get("name"), category.get("id"), category.get("name"),
+                        submitter.get("id"), submitter.get("name"),
+                        agent.get("id"), agent.get("name"),
+                        ticket.get("createdAt")))
+                .where(keysetPredicates(cb, ticket, filter, status, afterId))
+                .orderBy(cb.desc(ticket.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsPage(Set<String> fields, TicketFilter filter, TicketStatus status,
+                                                    Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Ticket> ticket = query.from(Ticket.class);
+
+        List<String> keys = new ArrayList<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String field : fields) {
+            switch (field) {
+                case "priority":
+                case "category":
+                    keys.add(field);
+                    selections.add(ticket.join(field, JoinType.LEFT).get("name"));
+                    break;
+                case "submitter":
+                case "assignedAgent":
+                    Join<Ticket, User> user = ticket.join(field, JoinType.LEFT);
+                    keys.add(field + ".id");
+                    selections.add(user.get("id"));
+                    keys.add(field + ".name");
+                    selections.add(user.get("name"));
+                    break;
+                default:
+                    keys.add(field);
+                    selections.add(ticket.get(field));
+            }
+        }
+
+        query.multiselect(selections)
+                .where(keysetPredicates(cb, ticket, filter, status, afterId))
+                .orderBy(cb.desc(ticket.get("id")));
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (limit > 0) {
+            typed.setMaxResults(limit);
+        }
+        return SparseRows.toMaps(typed.getResultList(), keys);
+    }
+
+    @Override
+    public List<Long> findIdPage(TicketFilter filter, TicketStatus status, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Ticket> ticket = query.from(Ticket.class);
+
+        query.select(ticket.get("id"))
+                .where(keysetPredicates(cb, ticket, filter, status, afterId))
+                .orderBy(cb.desc(ticket.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Only the predicates that are actually set, so MySQL can pick the matching (column, id) index
+    private Predicate[] keysetPredicates(CriteriaBuilder cb, Root<Ticket> ticket,
+                                         TicketFilter filter, TicketStatus status, Long afterId) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (status != null) {
+            predicates.add(cb.equal(ticket.get("status"), status));
+        }
+        if (filter.getPriorityId() != null) {
+            predicates.add(cb.equal(ticket.get("priority").get("id"), filter.getPriorityId()));
+        }
+        if (filter.getCategoryId() != null) {
+            predicates.add(cb.equal(ticket.get("category").get("id"), filter.getCategoryId()));
+        }
+        if (filter.getSubmitterId() != null) {
+            predicates.add(cb.equal(ticket.get("submitter").get("id"), filter.getSubmitterId()));
+        }
+        if (filter.getAssignedAgentId() != null) {
+            predicates.add(cb.equal(ticket.get("assignedAgent").get("id"), filter.getAssignedAgentId()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(ticket.get("createdAt"), filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            predicates.add(cb.lessThan(ticket.get("createdAt"), filter.getCreatedTo()));
+        }
+        if (afterId != null) {
+            predicates.add(cb.lessThan(ticket.get("id"), afterId));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+}
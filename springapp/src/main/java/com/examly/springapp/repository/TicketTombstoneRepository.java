@@ -0,0 +1,25 @@
+package com.examly.springapp.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.examly.springapp.model.TicketTombstone;
+
+@Repository
+public interface TicketTombstoneRepository extends JpaRepository<TicketTombstone, Long> {
+
+    // Same (changeVersion, id) keyset as TicketRepository.findChangesAfter
+    @Query("select t from TicketTombstone t "
+            + "where (t.changeVersion > :version or (t.changeVersion = :version and t.ticketId > :afterId)) "
+            + "and t.changeVersion <= :upTo order by t.changeVersion asc, t.ticketId asc")
+    List<TicketTombstone> findChangesAfter(@Param("version") long version, @Param("afterId") long afterId,
+                                           @Param("upTo") long upTo, Pageable pageable);
+
+    @Query("select coalesce(max(t.changeVersion), 0) from TicketTombstone t")
+    long findMaxChangeVersion();
+}
@@ -1,9 +1,32 @@
 package com.examly.springapp.repository;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import com.examly.springapp.model.User;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-}
\ No newline at end of file
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    // Both served by unique indexes on users.email / users.name
+    Optional<User> findByEmail(String email);
+
+    // Oldest user first, so a name shared in a database that predates uk_users_name still resolves to one row
+    Optional<User> findFirstByNameOrderByIdAsc(String name);
+
+    boolean existsByEmailOrName(String email, String name);
+
+    // Rows are [role, count]
+    @Query("select u.role, count(u) from User u group by u.role")
+    List<Object[]> countGroupedByRole();
+
+    // Assignment engine: users of a role with their skills, in one query
+    @EntityGraph(attributePaths = "skillCategoryIds")
+    List<User> findWithSkillsByRole(User.Role role);
+
+    @EntityGraph(attributePaths = "skillCategoryIds")
+    Optional<User> findWithSkillsById(Long id);
+}
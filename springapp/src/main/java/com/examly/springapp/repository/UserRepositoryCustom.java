@@ -0,0 +1,14 @@
+package com.examly.springapp.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface UserRepositoryCustom {
+
+    // Fields a ?fields= request may name; passwordHash is deliberately never selectable
+    List<String> SPARSE_FIELDS = List.of("id", "name", "email", "role", "phoneNumber", "createdAt");
+
+    // All users ordered by id, selecting only the given SPARSE_FIELDS
+    List<Map<String, Object>> findAllFields(Set<String> fields);
+}
@@ -0,0 +1,38 @@
+package com.examly.springapp.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import com.examly.springapp.model.User;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findAllFields(Set<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+
+        List<String> keys = new ArrayList<>(fields);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String field : keys) {
+            selections.add(user.get(field));
+        }
+        query.multiselect(selections).orderBy(cb.asc(user.get("id")));
+
+        return SparseRows.toMaps(entityManager.createQuery(query).getResultList(), keys);
+    }
+}
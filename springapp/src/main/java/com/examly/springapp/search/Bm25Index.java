@@ -0,0 +1,240 @@
+package com.examly.springapp.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index with Okapi BM25 scoring. Documents are identified by a
+ * long id and mapped to dense int ordinals so postings and score accumulators are
+ * primitive arrays. Searches share a read lock; put/remove take the write lock.
+ */
+public class Bm25Index {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private long[] docIds = new long[INITIAL_CAPACITY];
+    private int[] docLengths = new int[INITIAL_CAPACITY];
+    // Posting lists each document appears in, so removal visits only those
+    private Postings[][] docPostings = new Postings[INITIAL_CAPACITY][];
+    private int nextOrdinal;
+    private long totalLength;
+
+    // Adds or replaces a document; termFreqs maps index term -> (weighted) frequency
+    public void put(long docId, Map<String, Integer> termFreqs) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+            if (termFreqs.isEmpty()) {
+                return;
+            }
+            int ordinal = allocateOrdinal(docId);
+            Postings[] postingsOfDoc = new Postings[termFreqs.size()];
+            int length = 0;
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : termFreqs.entrySet()) {
+                Postings postings = terms.computeIfAbsent(entry.getKey(), Postings::new);
+                postings.add(ordinal, entry.getValue());
+                postingsOfDoc[i++] = postings;
+                length += entry.getValue();
+            }
+            docPostings[ordinal] = postingsOfDoc;
+            docLengths[ordinal] = length;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long docId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            ordinals.clear();
+            freeOrdinals.clear();
+            docIds = new long[INITIAL_CAPACITY];
+            docLengths = new int[INITIAL_CAPACITY];
+            docPostings = new Postings[INITIAL_CAPACITY][];
+            nextOrdinal = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Top-k documents by BM25 score over the distinct query terms, best first
+    public List<Hit> search(Collection<String> queryTerms, int k) {
+        lock.readLock().lock();
+        try {
+            int docCount = ordinals.size();
+            if (docCount == 0 || k < 1) {
+                return new ArrayList<>();
+            }
+            double avgLength = (double) totalLength / docCount;
+            double[] scores = new double[nextOrdinal];
+            int[] touched = new int[16];
+            int touchedCount = 0;
+
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                Postings postings = terms.get(term);
+                if (postings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (docCount - postings.size + 0.5) / (postings.size + 0.5));
+                for (int i = 0; i < postings.size; i++) {
+                    int ordinal = postings.ordinals[i];
+                    double tf = postings.freqs[i];
+                    double norm = K1 * (1 - B + B * docLengths[ordinal] / avgLength);
+                    if (scores[ordinal] == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = ordinal;
+                    }
+                    scores[ordinal] += idf * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+
+            PriorityQueue<Hit> heap = new PriorityQueue<>(Math.min(k, touchedCount) + 1,
+                    (a, b) -> Double.compare(a.score, b.score));
+            for (int i = 0; i < touchedCount; i++) {
+                int ordinal = touched[i];
+                double score = scores[ordinal];
+                if (heap.size() < k) {
+                    heap.add(new Hit(docIds[ordinal], score));
+                } else if (score > heap.peek().score) {
+                    heap.poll();
+                    heap.add(new Hit(docIds[ordinal], score));
+                }
+            }
+            List<Hit> hits = new ArrayList<>(heap);
+            hits.sort((a, b) -> Double.compare(b.score, a.score));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int allocateOrdinal(long docId) {
+        Integer free = freeOrdinals.poll();
+        int ordinal;
+        if (free != null) {
+            ordinal = free;
+        } else {
+            ordinal = nextOrdinal++;
+            if (ordinal == docIds.length) {
+                docIds = Arrays.copyOf(docIds, ordinal * 2);
+                docLengths = Arrays.copyOf(docLengths, ordinal * 2);
+                docPostings = Arrays.copyOf(docPostings, ordinal * 2);
+            }
+        }
+        docIds[ordinal] = docId;
+        ordinals.put(docId, ordinal);
+        return ordinal;
+    }
+
+    // Visits only the document's own posting lists (binary search each), not the whole vocabulary
+    private void removeLocked(long docId) {
+        Integer ordinal = ordinals.remove(docId);
+        if (ordinal == null) {
+            return;
+        }
+        for (Postings postings : docPostings[ordinal]) {
+            if (postings.remove(ordinal) && postings.size == 0) {
+                terms.remove(postings.term);
+            }
+        }
+        docPostings[ordinal] = null;
+        totalLength -= docLengths[ordinal];
+        docLengths[ordinal] = 0;
+        freeOrdinals.push(ordinal);
+    }
+
+    public static final class Hit {
+        private final long docId;
+        private final double score;
+
+        Hit(long docId, double score) {
+            this.docId = docId;
+            this.score = score;
+        }
+
+        public long getDocId() {
+            return docId;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    // Ordinals kept sorted so removal and out-of-order inserts can binary search
+    private static final class Postings {
+        private final String term;
+        private int[] ordinals = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void add(int ordinal, int freq) {
+            int pos = size == 0 || ordinals[size - 1] < ordinal
+                    ? size : -(Arrays.binarySearch(ordinals, 0, size, ordinal) + 1);
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            System.arraycopy(ordinals, pos, ordinals, pos + 1, size - pos);
+            System.arraycopy(freqs, pos, freqs, pos + 1, size - pos);
+            ordinals[pos] = ordinal;
+            freqs[pos] = freq;
+            size++;
+        }
+
+        boolean remove(int ordinal) {
+            int pos = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ordinals, pos + 1, ordinals, pos, size - pos - 1);
+            System.arraycopy(freqs, pos + 1, freqs, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+}
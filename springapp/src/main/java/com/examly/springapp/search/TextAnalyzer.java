@@ -0,0 +1,103 @@
+package com.examly.springapp.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns free text into index terms: lower-case, split on anything that is not a
+ * letter or digit, drop stop words and very short/long tokens, then apply a light
+ * suffix-stripping stemmer (plurals, -ed, -ing, -ly). Index and query text must go
+ * through the same analyzer.
+ */
+public final class TextAnalyzer {
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have",
+            "how", "i", "if", "in", "into", "is", "it", "its", "my", "no", "not", "of", "on", "or",
+            "our", "so", "such", "that", "the", "their", "then", "there", "these", "they", "this",
+            "to", "was", "we", "were", "what", "when", "where", "which", "will", "with", "you", "your");
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = term(text.substring(start, i));
+                if (term != null) {
+                    terms.add(term);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    // Index term for a single word, or null when the word is not indexed
+    public static String term(String word) {
+        if (word.length() < MIN_TOKEN_LENGTH || word.length() > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+        String lower = word.toLowerCase(Locale.ROOT);
+        if (STOP_WORDS.contains(lower)) {
+            return null;
+        }
+        return stem(lower);
+    }
+
+    static String stem(String word) {
+        if (word.length() <= 3 || !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+        String w = word;
+        if (w.endsWith("sses")) {
+            w = w.substring(0, w.length() - 2);
+        } else if (w.endsWith("ies") && w.length() > 4) {
+            w = w.substring(0, w.length() - 3) + "y";
+        } else if (w.endsWith("s") && !w.endsWith("ss") && !w.endsWith("us") && !w.endsWith("is")) {
+            w = w.substring(0, w.length() - 1);
+        }
+
+        if (w.endsWith("ing") && hasVowel(w, w.length() - 3) && w.length() > 5) {
+            w = undouble(w.substring(0, w.length() - 3));
+        } else if (w.endsWith("ed") && hasVowel(w, w.length() - 2) && w.length() > 4) {
+            w = undouble(w.substring(0, w.length() - 2));
+        } else if (w.endsWith("ly") && w.length() > 5) {
+            w = w.substring(0, w.length() - 2);
+        }
+        return w;
+    }
+
+    private static boolean hasVowel(String w, int end) {
+        for (int i = 0; i < end; i++) {
+            if ("aeiouy".indexOf(w.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // "stopp" -> "stop", but keep "ll", "ss", "zz" ("install", "access")
+    private static String undouble(String w) {
+        int n = w.length();
+        if (n >= 2 && w.charAt(n - 1) == w.charAt(n - 2) && "lsz".indexOf(w.charAt(n - 1)) < 0
+                && "aeiou".indexOf(w.charAt(n - 1)) < 0) {
+            return w.substring(0, n - 1);
+        }
+        return w;
+    }
+}
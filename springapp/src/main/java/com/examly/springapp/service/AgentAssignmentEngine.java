@@ -0,0 +1,241 @@
+package com.examly.springapp.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.examly.springapp.dto.TicketListItem;
+import com.examly.springapp.dto.UserSummary;
+import com.examly.springapp.event.TicketChangedEvent;
+import com.examly.springapp.event.UserChangedEvent;
+import com.examly.springapp.model.TicketStatus;
+import com.examly.springapp.model.User;
+import com.examly.springapp.repository.TicketRepository;
+import com.examly.springapp.repository.UserRepository;
+import com.examly.springapp.util.StripedLocks;
+
+/**
+ * Picks the agent for a new ticket that arrives without one: the AGENT with the fewest
+ * open (New or In Progress) tickets among those skilled in its category. Agents without
+ * skills take any category. Ties go round-robin.
+ *
+ * Agents and their open counts live in memory, so picking runs no query. Counts are
+ * seeded from one GROUP BY when the application is ready and then moved by committed
+ * ticket events. A pick reserves a slot on the chosen agent until its transaction
+ * completes, so concurrent creates see each other's choices before either commits. The
+ * reservation is taken under the agent's stripe lock, and only if the agent's load is
+ * still the one the scan saw; otherwise the scan runs again.
+ */
+@Component
+public class AgentAssignmentEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(AgentAssignmentEngine.class);
+
+    private static final Set<TicketStatus> OPEN = EnumSet.of(TicketStatus.New, TicketStatus.In_Progress);
+
+    private final TicketRepository ticketRepository;
+    private final UserRepository userRepository;
+    private final boolean enabled;
+
+    private final StripedLocks locks = new StripedLocks(64);
+    // Open tickets per assignee (any role); fields are written under the assignee's stripe lock
+    private final Map<Long, Load> loads = new ConcurrentHashMap<>();
+    // Copy-on-write snapshot of assignable agents, ordered by id; replaced under this
+    private volatile List<Candidate> agents = List.of();
+    private final AtomicLong roundRobin = new AtomicLong();
+    // Events before seeding are skipped; the seed query already counts them
+    private volatile boolean seeded;
+
+    public AgentAssignmentEngine(TicketRepository ticketRepository, UserRepository userRepository,
+                                 @Value("${app.tickets.auto-assign.enabled:true}") boolean enabled) {
+        this.ticketRepository = ticketRepository;
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void seed() {
+        List<Candidate> loaded = new ArrayList<>();
+        for (User agent : userRepository.findWithSkillsByRole(User.Role.AGENT)) {
+            loaded.add(new Candidate(agent));
+        }
+        loaded.sort(Comparator.comparing(c -> c.agent.getId()));
+        agents = List.copyOf(loaded);
+        for (Object[] row : ticketRepository.countByAssignedAgentAndStatusIn(OPEN)) {
+            adjust((Long) row[0], ((Number) row[1]).intValue());
+        }
+        seeded = true;
+        log.info("Assignment engine seeded with {} agents", loaded.size());
+    }
+
+    /**
+     * Chooses and reserves an agent for a ticket in categoryId (null for none) being
+     * created in the current transaction. Empty when auto-assignment is off or no agent
+     * can take the category; the ticket then stays unassigned for the work queue.
+     */
+    public Optional<User> assign(Long categoryId) {
+        return assign(categoryId, null);
+    }
+
+    // As assign(categoryId), never choosing excludedAgentId (the current assignee when escalating)
+    public Optional<User> assign(Long categoryId, Long excludedAgentId) {
+        if (!enabled || !seeded || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Optional.empty();
+        }
+        List<Candidate> eligible = new ArrayList<>();
+        for (Candidate candidate : agents) {
+            if (candidate.canTake(categoryId) && !candidate.agent.getId().equals(excludedAgentId)) {
+                eligible.add(candidate);
+            }
+        }
+        if (eligible.isEmpty()) {
+            return Optional.empty();
+        }
+
+        while (true) {
+            int start = (int) Math.floorMod(roundRobin.getAndIncrement(), (long) eligible.size());
+            Candidate best = null;
+            int bestLoad = Integer.MAX_VALUE;
+            for (int i = 0; i < eligible.size(); i++) {
+                Candidate candidate = eligible.get((start + i) % eligible.size());
+                int load = load(candidate.agent.getId());
+                if (load < bestLoad) {
+                    best = candidate;
+                    bestLoad = load;
+                }
+            }
+            if (reserve(best.agent.getId(), bestLoad)) {
+                return Optional.of(best.agent);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (!seeded) {
+            return;
+        }
+        Long before = openAssignee(event.getPrevious());
+        Long after = openAssignee(event.getTicket());
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            adjust(before, -1);
+        }
+        if (after != null) {
+            adjust(after, 1);
+        }
+    }
+
+    // Role, name or skills may have changed: reload the one user off the create path
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        if (!seeded) {
+            return;
+        }
+        List<Candidate> updated = new ArrayList<>(agents);
+        updated.removeIf(c -> c.agent.getId().equals(event.getUserId()));
+        if (event.getRole() == User.Role.AGENT) {
+            userRepository.findWithSkillsById(event.getUserId())
+                    .filter(user -> user.getRole() == User.Role.AGENT)
+                    .ifPresent(user -> updated.add(new Candidate(user)));
+        }
+        updated.sort(Comparator.comparing(c -> c.agent.getId()));
+        agents = List.copyOf(updated);
+    }
+
+    // Open tickets plus reservations not yet committed or rolled back
+    public int load(Long agentId) {
+        Load load = loads.get(agentId);
+        return load != null ? load.open + load.reserved : 0;
+    }
+
+    private boolean reserve(Long agentId, int expectedLoad) {
+        Lock lock = locks.get(agentId);
+        lock.lock();
+        try {
+            Load load = loads.computeIfAbsent(agentId, id -> new Load());
+            if (load.open + load.reserved != expectedLoad) {
+                return false;
+            }
+            load.reserved++;
+        } finally {
+            lock.unlock();
+        }
+        // The committed ticket's CREATED event adds it to open before this runs, so the count never dips
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(agentId);
+            }
+        });
+        return true;
+    }
+
+    private void release(Long agentId) {
+        Lock lock = locks.get(agentId);
+        lock.lock();
+        try {
+            loads.get(agentId).reserved--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjust(Long agentId, int delta) {
+        Lock lock = locks.get(agentId);
+        lock.lock();
+        try {
+            loads.computeIfAbsent(agentId, id -> new Load()).open += delta;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Long openAssignee(TicketListItem ticket) {
+        if (ticket == null || !OPEN.contains(ticket.getStatus())) {
+            return null;
+        }
+        UserSummary agent = ticket.getAssignedAgent();
+        return agent != null ? agent.getId() : null;
+    }
+
+    private static final class Load {
+        private volatile int open;
+        private volatile int reserved;
+    }
+
+    // Detached agent row, safe to set on a new ticket without loading it again
+    private static final class Candidate {
+        private final User agent;
+        private final Set<Long> skills;
+
+        Candidate(User agent) {
+            this.agent = agent;
+            this.skills = Set.copyOf(agent.getSkillCategoryIds());
+        }
+
+        boolean canTake(Long categoryId) {
+            return categoryId == null || skills.isEmpty() || skills.contains(categoryId);
+        }
+    }
+}
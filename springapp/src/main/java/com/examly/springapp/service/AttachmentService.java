@@ -1,16 +1,22 @@
 package com.examly.springapp.service;
 
 import com.examly.springapp.model.Attachment;
+import com.examly.springapp.dto.AttachByDigestRequest;
 import com.examly.springapp.dto.CreateAttachmentRequest;
+import com.examly.springapp.storage.StagedBlob;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
 import java.util.List;
 
 public interface AttachmentService {
     List<Attachment> getAllAttachments();
-    Attachment uploadAttachment(Long ticketId, Long userId, MultipartFile file);
+    Attachment uploadAttachment(Long ticketId, Long userId, MultipartFile file, String expectedSha256);
+    Attachment attachExisting(AttachByDigestRequest request);
+    Attachment attachStaged(Long ticketId, String fileName, String contentType, StagedBlob staged, String expectedSha256);
     List<Attachment> getAttachmentsByTicketId(Long ticketId);
     Attachment getAttachmentById(Long id);
+    Path getContentPath(Attachment attachment);
     Attachment createAttachment(CreateAttachmentRequest request);
     Attachment updateAttachment(Long id, CreateAttachmentRequest request);
     void deleteAttachment(Long id);
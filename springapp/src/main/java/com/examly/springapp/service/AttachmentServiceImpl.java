@@ -1,35 +1,157 @@
 package com.examly.springapp.service;
 
 import com.examly.springapp.model.Attachment;
+import com.examly.springapp.model.ContentBlob;
+import com.examly.springapp.dto.AttachByDigestRequest;
 import com.examly.springapp.dto.CreateAttachmentRequest;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.ResourceNotFoundException;
 import com.examly.springapp.repository.AttachmentRepository;
+import com.examly.springapp.repository.ContentBlobRepository;
+import com.examly.springapp.repository.TicketRepository;
+import com.examly.springapp.storage.BlobStore;
+import com.examly.springapp.storage.StagedBlob;
+import com.examly.springapp.util.StripedLocks;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.Lock;
+import java.util.regex.Pattern;
 
+/**
+ * Attachment rows point at content-addressed blobs. Each distinct content is stored once,
+ * and the blobs table counts how many attachments share it. Publishing a blob, changing its
+ * count and deleting its file are serialized per digest with an in-JVM striped lock. The lock
+ * is held until the surrounding transaction completes, so a delete that drops the last
+ * reference cannot race an upload of the same content.
+ */
 @Service
 public class AttachmentServiceImpl implements AttachmentService {
 
+    private static final int BLOB_LOCK_STRIPES = 256;
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
     private final AttachmentRepository attachmentRepository;
+    private final TicketRepository ticketRepository;
+    private final ContentBlobRepository contentBlobRepository;
+    private final BlobStore blobStore;
+    private final StripedLocks blobLocks = new StripedLocks(BLOB_LOCK_STRIPES);
 
-    public AttachmentServiceImpl(AttachmentRepository attachmentRepository) {
+    public AttachmentServiceImpl(AttachmentRepository attachmentRepository, TicketRepository ticketRepository,
+                                 ContentBlobRepository contentBlobRepository, BlobStore blobStore) {
         this.attachmentRepository = attachmentRepository;
+        this.ticketRepository = ticketRepository;
+        this.contentBlobRepository = contentBlobRepository;
+        this.blobStore = blobStore;
     }
 
+    // Hashing happens while streaming, outside the lock; only publishing and counting are serialized
     @Override
-    public Attachment uploadAttachment(Long ticketId, Long userId, MultipartFile file) {
+    @Transactional
+    public Attachment uploadAttachment(Long ticketId, Long userId, MultipartFile file, String expectedSha256) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("A non-empty file is required");
+        }
+        requireTicket(ticketId);
+
+        StagedBlob staged;
+        try (InputStream content = file.getInputStream()) {
+            staged = blobStore.stage(content);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload attachment: " + e.getMessage());
+        }
+        return publishAndAttach(ticketId, file.getOriginalFilename(), file.getContentType(), staged, expectedSha256);
+    }
+
+    // Used by chunked uploads once every chunk has arrived; the staged file is consumed either way
+    @Override
+    @Transactional
+    public Attachment attachStaged(Long ticketId, String fileName, String contentType, StagedBlob staged,
+                                   String expectedSha256) {
         try {
-            Attachment attachment = new Attachment();
-            attachment.setFileName(file.getOriginalFilename());
-            attachment.setFileUrl("/uploads/" + file.getOriginalFilename()); // Simple file URL
-            // Note: The Attachment model uses Ticket object, not IDs
-            // uploadedAt removed as per new schema
-            
-            return attachmentRepository.save(attachment);
-        } catch (Exception e) {
+            requireTicket(ticketId);
+        } catch (RuntimeException e) {
+            blobStore.discard(staged);
+            throw e;
+        }
+        return publishAndAttach(ticketId, fileName, contentType, staged, expectedSha256);
+    }
+
+    private Attachment publishAndAttach(Long ticketId, String fileName, String contentType, StagedBlob staged,
+                                        String expectedSha256) {
+        if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(staged.getDigest())) {
+            blobStore.discard(staged);
+            throw new BadRequestException("Uploaded content does not match sha256 " + expectedSha256);
+        }
+
+        BlobLock blobLock = lockBlob(staged.getDigest());
+        try {
+            // false when the same content is already stored: the new copy is dropped, nothing is rewritten
+            blobLock.deleteOnRollback = blobStore.publish(staged);
+        } catch (IOException e) {
+            blobStore.discard(staged);
             throw new RuntimeException("Failed to upload attachment: " + e.getMessage());
         }
+        if (contentBlobRepository.incrementRefCount(staged.getDigest()) == 0) {
+            contentBlobRepository.save(new ContentBlob(staged.getDigest(), staged.getSize()));
+        }
+        return saveAttachment(ticketId, fileName, contentType, staged.getSize(), staged.getDigest());
+    }
+
+    // Fast path for content the server already has: no bytes are sent, only a reference is added
+    @Override
+    @Transactional
+    public Attachment attachExisting(AttachByDigestRequest request) {
+        if (request == null || request.getSha256() == null
+                || !SHA256_HEX.matcher(request.getSha256().toLowerCase(Locale.ROOT)).matches()) {
+            throw new BadRequestException("sha256 must be 64 hex characters");
+        }
+        if (request.getFileName() == null || request.getFileName().isBlank()) {
+            throw new BadRequestException("fileName is required");
+        }
+        requireTicket(request.getTicketId());
+
+        String digest = request.getSha256().toLowerCase(Locale.ROOT);
+        lockBlob(digest);
+        ContentBlob blob = contentBlobRepository.findById(digest)
+                .filter(b -> blobStore.locate(digest) != null)
+                .orElseThrow(() -> new ResourceNotFoundException("No stored content with sha256 " + digest));
+        contentBlobRepository.incrementRefCount(digest);
+        return saveAttachment(request.getTicketId(), request.getFileName(), request.getContentType(),
+                blob.getSize(), digest);
+    }
+
+    private void requireTicket(Long ticketId) {
+        if (ticketId == null) {
+            throw new BadRequestException("ticketId is required");
+        }
+        if (!ticketRepository.existsById(ticketId)) {
+            throw new ResourceNotFoundException("Ticket not found with ID: " + ticketId);
+        }
+    }
+
+    private Attachment saveAttachment(Long ticketId, String originalName, String contentType, long size, String key) {
+        String fileName = StringUtils.getFilename(StringUtils.cleanPath(originalName != null ? originalName : "file"));
+        Attachment attachment = new Attachment();
+        attachment.setTicket(ticketRepository.getReferenceById(ticketId));
+        attachment.setFileName(fileName);
+        attachment.setContentType(contentType);
+        attachment.setSize(size);
+        attachment.setStorageKey(key);
+        // URL needs the generated id; the change is flushed with the insert's transaction
+        attachment.setFileUrl("");
+        Attachment saved = attachmentRepository.save(attachment);
+        saved.setFileUrl("/api/attachments/" + saved.getId() + "/content");
+        return saved;
     }
 
     @Override
@@ -40,7 +162,16 @@ public class AttachmentServiceImpl implements AttachmentService {
     @Override
     public Attachment getAttachmentById(Long id) {
         return attachmentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Attachment not found with ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment not found with ID: " + id));
+    }
+
+    @Override
+    public Path getContentPath(Attachment attachment) {
+        Path path = blobStore.locate(attachment.getStorageKey());
+        if (path == null) {
+            throw new ResourceNotFoundException("No stored content for attachment " + attachment.getId());
+        }
+        return path;
     }
 
     @Override
@@ -65,9 +196,58 @@ public class AttachmentServiceImpl implements AttachmentService {
         return attachmentRepository.save(attachment);
     }
 
+    // The file goes only with the last reference; keys without a blobs row predate content addressing
     @Override
+    @Transactional
     public void deleteAttachment(Long id) {
         Attachment attachment = getAttachmentById(id);
         attachmentRepository.delete(attachment);
+        String key = attachment.getStorageKey();
+        if (key == null) {
+            return;
+        }
+        BlobLock blobLock = lockBlob(key);
+        if (!contentBlobRepository.existsById(key)) {
+            // No blobs row: a file stored before content addressing, removed once no attachment names it
+            blobLock.deleteOnCommit = !attachmentRepository.existsByStorageKey(key);
+            return;
+        }
+        // The count may already be 0 (nothing to decrement); only removing the row itself frees the file
+        contentBlobRepository.decrementRefCount(key);
+        blobLock.deleteOnCommit = contentBlobRepository.deleteIfUnreferenced(key) > 0;
+    }
+
+    // Locks the digest's stripe until the current transaction completes, then applies any file cleanup
+    private BlobLock lockBlob(String digest) {
+        BlobLock blobLock = new BlobLock(digest, blobLocks.get(digest));
+        blobLock.lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(blobLock);
+        return blobLock;
+    }
+
+    private final class BlobLock implements TransactionSynchronization {
+        private final String digest;
+        private final Lock lock;
+        private boolean deleteOnCommit;
+        private boolean deleteOnRollback;
+
+        BlobLock(String digest, Lock lock) {
+            this.digest = digest;
+            this.lock = lock;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            try {
+                boolean committed = status == STATUS_COMMITTED;
+                if (committed ? deleteOnCommit : deleteOnRollback) {
+                    blobStore.delete(digest);
+                }
+            } catch (IOException ignored) {
+                // A blob left behind here only wastes disk; it must not fail the request
+            } finally {
+                lock.unlock();
+            }
+        }
     }
-}
\ No newline at end of file
+}
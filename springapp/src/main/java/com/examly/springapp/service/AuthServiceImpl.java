@@ -6,19 +6,20 @@ import com.examly.springapp.dto.SignupRequest;
 import com.examly.springapp.dto.CreateUserRequest;
 import com.examly.springapp.model.User;
 import com.examly.springapp.repository.UserRepository;
+import com.examly.springapp.util.JwtUtil;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
     private final UserService userService;
+    private final JwtUtil jwtUtil;
 
-    public AuthServiceImpl(UserRepository userRepository, UserService userService) {
+    public AuthServiceImpl(UserRepository userRepository, UserService userService, JwtUtil jwtUtil) {
         this.userRepository = userRepository;
         this.userService = userService;
+        this.jwtUtil = jwtUtil;
     }
 
     @Override
@@ -27,21 +28,12 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("Username and password are required");
         }
 
-        // For demo purposes, handle hardcoded users
-        if ("admin".equals(request.getUsername()) && "admin123".equals(request.getPassword())) {
-            return new AuthResponse(1L, "admin", "admin", "Login successful");
-        }
-        
-        if ("user".equals(request.getUsername()) && "user123".equals(request.getPassword())) {
-            return new AuthResponse(2L, "user", "user", "Login successful");
-        }
-
-        // Try to find user by email or name in the database
-        List<User> allUsers = userRepository.findAll();
-        User user = allUsers.stream()
-                .filter(u -> request.getUsername().equals(u.getEmail()) || request.getUsername().equals(u.getName()))
+        // Username may be an email or a name; each is a unique index lookup
+        String username = request.getUsername();
+        User user = userRepository.findByEmail(username)
                 .filter(u -> request.getPassword().equals(u.getPasswordHash())) // In real app, use password hashing
-                .findFirst()
+                .or(() -> userRepository.findFirstByNameOrderByIdAsc(username)
+                        .filter(u -> request.getPassword().equals(u.getPasswordHash())))
                 .orElse(null);
 
         if (user == null) {
@@ -49,20 +41,18 @@ public class AuthServiceImpl implements AuthService {
         }
 
         String role = user.getRole().name().toLowerCase();
-        return new AuthResponse(user.getId(), user.getName(), role, "Login successful");
+        return new AuthResponse(user.getId(), user.getName(), role, "Login successful",
+                jwtUtil.generateToken(user.getId(), user.getName(), role));
     }
 
     @Override
     public AuthResponse signup(SignupRequest request) {
-        if (request.getUsername() == null || request.getPassword() == null || 
-            request.getEmail() == null || request.getRole() == null) {
+        if (request.getUsername() == null || request.getPassword() == null || request.getEmail() == null) {
             throw new RuntimeException("All fields are required");
         }
 
         // Check if user already exists
-        List<User> allUsers = userRepository.findAll();
-        boolean userExists = allUsers.stream()
-                .anyMatch(u -> request.getEmail().equals(u.getEmail()) || request.getUsername().equals(u.getName()));
+        boolean userExists = userRepository.existsByEmailOrName(request.getEmail(), request.getUsername());
 
         if (userExists) {
             throw new RuntimeException("User already exists with this email or username");
@@ -73,12 +63,14 @@ public class AuthServiceImpl implements AuthService {
         createUserRequest.setName(request.getUsername());
         createUserRequest.setEmail(request.getEmail());
         createUserRequest.setPassword(request.getPassword());
-        createUserRequest.setRole(request.getRole());
+        // Self-signup only ever creates employees; agents and admins are created by an admin via /api/users
+        createUserRequest.setRole(User.Role.EMPLOYEE.name());
 
         try {
             User newUser = userService.createUser(createUserRequest);
             String role = newUser.getRole().name().toLowerCase();
-            return new AuthResponse(newUser.getId(), newUser.getName(), role, "User created successfully");
+            return new AuthResponse(newUser.getId(), newUser.getName(), role, "User created successfully",
+                    jwtUtil.generateToken(newUser.getId(), newUser.getName(), role));
         } catch (Exception e) {
             throw new RuntimeException("Failed to create user: " + e.getMessage());
         }
@@ -0,0 +1,13 @@
+package com.examly.springapp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Principal placed in the SecurityContext for a request carrying a valid access token
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser {
+    private Long id;
+    private String name;
+    private String role;
+}
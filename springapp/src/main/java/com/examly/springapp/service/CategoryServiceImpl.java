@@ -3,8 +3,11 @@ package com.examly.springapp.service;
 import com.examly.springapp.model.Category;
 import com.examly.springapp.repository.CategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,10 +16,32 @@ public class CategoryServiceImpl implements CategoryService {
     
     @Autowired
     private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private RequestCoalescer coalescer;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Value("${app.coalescer.lookups.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${app.coalescer.lookups.stale-ms:300000}")
+    private long staleMs;
+
+    private RequestCoalescer.Cache<String, List<Category>> allCache;
+
+    @PostConstruct
+    void initCache() {
+        allCache = coalescer.create("lookups.categories", Duration.ofMillis(ttlMs), Duration.ofMillis(staleMs));
+    }
     
     @Override
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return allCache.get("all", () -> List.copyOf(categoryRepository.findAll()));
     }
     
     @Override
@@ -26,14 +51,22 @@ public class CategoryServiceImpl implements CategoryService {
     
     @Override
     public Category createCategory(Category category) {
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        referenceDataCache.invalidateCategories();
+        allCache.invalidateAll();
+        resourceVersions.bump(ResourceVersions.CATEGORIES);
+        return saved;
     }
     
     @Override
     public Category updateCategory(Long id, Category category) {
         if (categoryRepository.existsById(id)) {
             category.setId(id);
-            return categoryRepository.save(category);
+            Category saved = categoryRepository.save(category);
+            referenceDataCache.invalidateCategories();
+            allCache.invalidateAll();
+            resourceVersions.bump(ResourceVersions.CATEGORIES);
+            return saved;
         }
         throw new RuntimeException("Category not found with id: " + id);
     }
@@ -41,6 +74,9 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     public void deleteCategory(Long id) {
         categoryRepository.deleteById(id);
+        referenceDataCache.invalidateCategories();
+        allCache.invalidateAll();
+        resourceVersions.bump(ResourceVersions.CATEGORIES);
     }
     
     @Override
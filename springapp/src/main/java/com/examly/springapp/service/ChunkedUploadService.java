@@ -0,0 +1,16 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.ChunkReceipt;
+import com.examly.springapp.dto.ChunkedUploadStatus;
+import com.examly.springapp.dto.InitChunkedUploadRequest;
+import com.examly.springapp.model.Attachment;
+
+import java.io.InputStream;
+
+public interface ChunkedUploadService {
+    ChunkedUploadStatus start(InitChunkedUploadRequest request);
+    ChunkReceipt writeChunk(String uploadId, int index, InputStream content, String expectedSha256);
+    ChunkedUploadStatus getStatus(String uploadId);
+    Attachment complete(String uploadId);
+    void abort(String uploadId);
+}
@@ -0,0 +1,361 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.ChunkReceipt;
+import com.examly.springapp.dto.ChunkedUploadStatus;
+import com.examly.springapp.dto.InitChunkedUploadRequest;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.ConflictException;
+import com.examly.springapp.exception.ResourceNotFoundException;
+import com.examly.springapp.model.Attachment;
+import com.examly.springapp.repository.TicketRepository;
+import com.examly.springapp.storage.BlobStore;
+import com.examly.springapp.storage.StagedBlob;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resumable uploads: start() preallocates a file of the final size, chunks are written
+ * at index * chunkSize in any order and in parallel (positional writes on one shared
+ * FileChannel), and complete() hashes the assembled file and hands it to
+ * AttachmentService like a single-request upload. The upload and its file are only
+ * dropped once that succeeds, or on abort.
+ *
+ * Each chunk is hashed as it is written; a chunk only counts as received once its
+ * bytes are on disk and match the client's X-Chunk-SHA256, if one was sent. A chunk
+ * can be sent again to replace it, but not while another copy of it is still being
+ * written (409). Upload state lives in memory on this instance; sessions idle longer
+ * than the TTL are dropped by a scheduled sweep together with their file.
+ */
+@Service
+public class ChunkedUploadServiceImpl implements ChunkedUploadService {
+
+    private static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+    private static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+    private static final int MAX_CHUNKS = 10_000;
+    private static final int MAX_ACTIVE_UPLOADS = 1000;
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final BlobStore blobStore;
+    private final AttachmentService attachmentService;
+    private final TicketRepository ticketRepository;
+    private final long maxUploadBytes;
+    private final long sessionTtlMillis;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public ChunkedUploadServiceImpl(BlobStore blobStore, AttachmentService attachmentService,
+                                    TicketRepository ticketRepository,
+                                    @Value("${app.attachments.chunked.max-upload-bytes:10737418240}") long maxUploadBytes,
+                                    @Value("${app.attachments.chunked.session-ttl-minutes:60}") long sessionTtlMinutes) {
+        this.blobStore = blobStore;
+        this.attachmentService = attachmentService;
+        this.ticketRepository = ticketRepository;
+        this.maxUploadBytes = maxUploadBytes;
+        this.sessionTtlMillis = sessionTtlMinutes * 60_000;
+    }
+
+    @Override
+    public ChunkedUploadStatus start(InitChunkedUploadRequest request) {
+        if (request == null || request.getTicketId() == null) {
+            throw new BadRequestException("ticketId is required");
+        }
+        if (request.getFileName() == null || request.getFileName().isBlank()) {
+            throw new BadRequestException("fileName is required");
+        }
+        if (request.getSize() == null || request.getSize() < 1 || request.getSize() > maxUploadBytes) {
+            throw new BadRequestException("size must be between 1 and " + maxUploadBytes + " bytes");
+        }
+        String sha256 = request.getSha256() != null ? request.getSha256().toLowerCase(Locale.ROOT) : null;
+        if (sha256 != null && !sha256.matches("[0-9a-f]{64}")) {
+            throw new BadRequestException("sha256 must be 64 hex characters");
+        }
+        if (!ticketRepository.existsById(request.getTicketId())) {
+            throw new ResourceNotFoundException("Ticket not found with ID: " + request.getTicketId());
+        }
+        if (sessions.size() >= MAX_ACTIVE_UPLOADS) {
+            throw new BadRequestException("Too many uploads in progress, try again later");
+        }
+
+        long size = request.getSize();
+        int chunkSize = request.getChunkSize() != null ? request.getChunkSize() : DEFAULT_CHUNK_SIZE;
+        chunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, chunkSize));
+        // Very large files get larger chunks rather than an unbounded chunk table
+        long minChunkSize = (size + MAX_CHUNKS - 1) / MAX_CHUNKS;
+        chunkSize = (int) Math.max(chunkSize, Math.min(minChunkSize, MAX_CHUNK_SIZE));
+        int chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+
+        Path file;
+        FileChannel channel;
+        try {
+            file = blobStore.allocate(size);
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start upload: " + e.getMessage());
+        }
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), request.getTicketId(),
+                request.getFileName(), request.getContentType(), size, chunkSize, chunkCount, sha256, file, channel);
+        sessions.put(session.id, session);
+        return session.status();
+    }
+
+    @Override
+    public ChunkReceipt writeChunk(String uploadId, int index, InputStream content, String expectedSha256) {
+        UploadSession session = requireSession(uploadId);
+        if (index < 0 || index >= session.chunkCount) {
+            throw new BadRequestException("Chunk index must be between 0 and " + (session.chunkCount - 1));
+        }
+        long offset = (long) index * session.chunkSize;
+        long length = session.chunkLength(index);
+
+        // Shared lock: chunks of one upload are written concurrently; complete/abort take the exclusive lock
+        session.lock.readLock().lock();
+        try {
+            if (session.closed) {
+                throw new ResourceNotFoundException("Upload not found: " + uploadId);
+            }
+            // A re-sent chunk overwrites the old bytes, so it only counts again once the new copy is verified.
+            // Two copies of one chunk written at once would interleave, so a second one is refused meanwhile
+            if (!session.beginWrite(index)) {
+                throw new ConflictException("Chunk " + index + " is already being uploaded");
+            }
+            String digest;
+            boolean verified = false;
+            try {
+                digest = writeAt(session.channel, content, offset, length);
+                if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(digest)) {
+                    throw new BadRequestException("Chunk " + index + " does not match sha256 " + expectedSha256);
+                }
+                verified = true;
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to store chunk " + index + ": " + e.getMessage());
+            } finally {
+                session.endWrite(index, verified);
+            }
+            return new ChunkReceipt(uploadId, index, offset, length, digest, session.receivedCount(), session.chunkCount);
+        } finally {
+            session.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public ChunkedUploadStatus getStatus(String uploadId) {
+        return requireSession(uploadId).status();
+    }
+
+    @Override
+    public Attachment complete(String uploadId) {
+        UploadSession session = requireSession(uploadId);
+        // Held until the attachment is saved: no chunk changes the file while it is hashed and attached
+        session.lock.writeLock().lock();
+        try {
+            if (session.closed) {
+                throw new ResourceNotFoundException("Upload not found: " + uploadId);
+            }
+            int missing = session.chunkCount - session.receivedCount();
+            if (missing > 0) {
+                throw new BadRequestException(missing + " of " + session.chunkCount + " chunks have not been received");
+            }
+            StagedBlob staged;
+            try {
+                session.channel.force(false);
+                staged = blobStore.stage(session.file);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to complete upload: " + e.getMessage());
+            }
+            // attachStaged publishes or discards the staged copy, never the session's file. If it fails
+            // (e.g. the content does not match sha256) the upload stays open: chunks can be re-sent and
+            // complete() retried, or the upload aborted
+            Attachment attachment;
+            try {
+                attachment = attachmentService.attachStaged(session.ticketId, session.fileName,
+                        session.contentType, staged, session.sha256);
+            } catch (RuntimeException e) {
+                // Normally already discarded or rolled back by attachStaged; a no-op then
+                blobStore.discard(staged);
+                throw e;
+            }
+            session.closed = true;
+            sessions.remove(uploadId);
+            discard(session);
+            return attachment;
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void abort(String uploadId) {
+        UploadSession session = requireSession(uploadId);
+        session.lock.writeLock().lock();
+        try {
+            if (!session.closed) {
+                session.closed = true;
+                sessions.remove(uploadId);
+                discard(session);
+            }
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.attachments.chunked.cleanup-interval-ms:300000}")
+    public void expireIdleSessions() {
+        long cutoff = System.currentTimeMillis() - sessionTtlMillis;
+        for (UploadSession session : sessions.values()) {
+            // Skip sessions busy with a chunk or completing; they are not idle
+            if (session.lastActivity < cutoff && session.lock.writeLock().tryLock()) {
+                try {
+                    if (!session.closed) {
+                        session.closed = true;
+                        sessions.remove(session.id);
+                        discard(session);
+                    }
+                } finally {
+                    session.lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    private UploadSession requireSession(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            throw new ResourceNotFoundException("Upload not found: " + uploadId);
+        }
+        session.lastActivity = System.currentTimeMillis();
+        return session;
+    }
+
+    // Copies exactly length bytes to the file at offset, hashing them on the way; rejects short or long bodies
+    private static String writeAt(FileChannel channel, InputStream content, long offset, long length) throws IOException {
+        MessageDigest sha256 = newDigest();
+        ReadableByteChannel source = Channels.newChannel(content);
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(BUFFER_SIZE, length));
+        long written = 0;
+        while (written < length) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), length - written));
+            if (source.read(buffer) < 0) {
+                throw new BadRequestException("Chunk body is " + written + " bytes, expected " + length);
+            }
+            buffer.flip();
+            ByteBuffer hashed = buffer.duplicate();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer, offset + written);
+            }
+            sha256.update(hashed);
+        }
+        if (source.read(ByteBuffer.allocate(1)) > 0) {
+            throw new BadRequestException("Chunk body is larger than " + length + " bytes");
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    private void discard(UploadSession session) {
+        try {
+            session.channel.close();
+            Files.deleteIfExists(session.file);
+        } catch (IOException ignored) {
+            // the blob store clears leftover upload files on the next start
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class UploadSession {
+        private final String id;
+        private final Long ticketId;
+        private final String fileName;
+        private final String contentType;
+        private final long size;
+        private final int chunkSize;
+        private final int chunkCount;
+        private final String sha256;
+        private final Path file;
+        private final FileChannel channel;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final BitSet received = new BitSet();
+        private final BitSet writing = new BitSet();
+        private volatile long lastActivity = System.currentTimeMillis();
+        private boolean closed;
+
+        UploadSession(String id, Long ticketId, String fileName, String contentType, long size, int chunkSize,
+                      int chunkCount, String sha256, Path file, FileChannel channel) {
+            this.id = id;
+            this.ticketId = ticketId;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.size = size;
+            this.chunkSize = chunkSize;
+            this.chunkCount = chunkCount;
+            this.sha256 = sha256;
+            this.file = file;
+            this.channel = channel;
+        }
+
+        long chunkLength(int index) {
+            return Math.min(chunkSize, size - (long) index * chunkSize);
+        }
+
+        // False while another copy of the chunk is being written
+        synchronized boolean beginWrite(int index) {
+            if (writing.get(index)) {
+                return false;
+            }
+            writing.set(index);
+            received.clear(index);
+            return true;
+        }
+
+        synchronized void endWrite(int index, boolean verified) {
+            writing.clear(index);
+            received.set(index, verified);
+        }
+
+        synchronized int receivedCount() {
+            return received.cardinality();
+        }
+
+        synchronized ChunkedUploadStatus status() {
+            List<Integer> missing = new ArrayList<>();
+            long bytesReceived = 0;
+            for (int i = 0; i < chunkCount; i++) {
+                if (received.get(i)) {
+                    bytesReceived += chunkLength(i);
+                } else {
+                    missing.add(i);
+                }
+            }
+            return new ChunkedUploadStatus(id, ticketId, fileName, size, chunkSize, chunkCount,
+                    received.cardinality(), bytesReceived, missing);
+        }
+    }
+}
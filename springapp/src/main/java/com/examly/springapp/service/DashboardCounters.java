@@ -0,0 +1,258 @@
+package com.examly.springapp.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.examly.springapp.dto.TicketListItem;
+import com.examly.springapp.dto.UserSummary;
+import com.examly.springapp.event.TicketChangedEvent;
+import com.examly.springapp.event.UserChangedEvent;
+import com.examly.springapp.model.TicketStatus;
+import com.examly.springapp.model.User;
+import com.examly.springapp.repository.TicketRepository;
+import com.examly.springapp.repository.UserRepository;
+
+/**
+ * Ticket and user counts for the dashboard, kept in memory instead of recomputed per request.
+ *
+ * Tickets are counted per (status, priority, category, assigned agent) key, with running
+ * totals per single dimension so reads never scan the keys. Counts are seeded from one
+ * GROUP BY when the application is ready and then moved by committed ticket and user
+ * events: the previous row's key loses one, the new row's key gains one.
+ *
+ * reconcile() recounts from the database on a schedule. A difference can be a change that
+ * committed but whose event is still on its way, so a key is only corrected when the same
+ * difference shows up in two consecutive runs.
+ */
+@Component
+public class DashboardCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardCounters.class);
+
+    private final TicketRepository ticketRepository;
+    private final UserRepository userRepository;
+
+    private final Map<TicketKey, AtomicLong> tickets = new ConcurrentHashMap<>();
+    private final Map<TicketStatus, AtomicLong> byStatus = new ConcurrentHashMap<>();
+    // Keyed by id so a renamed priority or category keeps one count; names are resolved when stats are rendered
+    private final Map<Long, AtomicLong> byPriority = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> byCategory = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> byAgent = new ConcurrentHashMap<>();
+    private final AtomicLong totalTickets = new AtomicLong();
+    private final Map<User.Role, AtomicLong> byRole = new ConcurrentHashMap<>();
+    private final AtomicLong totalUsers = new AtomicLong();
+
+    // Differences seen by the previous reconcile run; only accessed from reconcile()
+    private Map<Object, Long> pendingDrift = new HashMap<>();
+    // Events before seeding are skipped; the seed query already counts them (reconcile catches the rest)
+    private volatile boolean seeded;
+
+    public DashboardCounters(TicketRepository ticketRepository, UserRepository userRepository) {
+        this.ticketRepository = ticketRepository;
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void seed() {
+        Map<TicketKey, Long> ticketCounts = countTickets();
+        Map<User.Role, Long> roleCounts = countUsers();
+        for (Map.Entry<TicketKey, Long> entry : ticketCounts.entrySet()) {
+            addTickets(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<User.Role, Long> entry : roleCounts.entrySet()) {
+            addUsers(entry.getKey(), entry.getValue());
+        }
+        seeded = true;
+        log.info("Dashboard counters seeded with {} tickets and {} users", totalTickets.get(), totalUsers.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (!seeded) {
+            return;
+        }
+        if (event.getPrevious() != null) {
+            addTickets(TicketKey.of(event.getPrevious()), -1);
+        }
+        if (event.getTicket() != null) {
+            addTickets(TicketKey.of(event.getTicket()), 1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!seeded) {
+            return;
+        }
+        if (event.getPreviousRole() != null) {
+            addUsers(event.getPreviousRole(), -1);
+        }
+        if (event.getRole() != null) {
+            addUsers(event.getRole(), 1);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.dashboard.counters.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.dashboard.counters.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        if (!seeded) {
+            return;
+        }
+        Map<Object, Long> drift = new HashMap<>();
+        Map<TicketKey, Long> ticketCounts = countTickets();
+        for (TicketKey key : tickets.keySet()) {
+            ticketCounts.putIfAbsent(key, 0L);
+        }
+        ticketCounts.forEach((key, expected) -> {
+            long diff = expected - count(tickets, key);
+            if (diff != 0) {
+                drift.put(key, diff);
+            }
+        });
+        Map<User.Role, Long> roleCounts = countUsers();
+        for (User.Role role : User.Role.values()) {
+            long diff = roleCounts.getOrDefault(role, 0L) - count(byRole, role);
+            if (diff != 0) {
+                drift.put(role, diff);
+            }
+        }
+
+        Map<Object, Long> unconfirmed = new HashMap<>();
+        for (Map.Entry<Object, Long> entry : drift.entrySet()) {
+            if (!entry.getValue().equals(pendingDrift.get(entry.getKey()))) {
+                unconfirmed.put(entry.getKey(), entry.getValue());
+            } else if (entry.getKey() instanceof TicketKey) {
+                addTickets((TicketKey) entry.getKey(), entry.getValue());
+            } else {
+                addUsers((User.Role) entry.getKey(), entry.getValue());
+            }
+        }
+        if (drift.size() > unconfirmed.size()) {
+            log.warn("Dashboard counters repaired {} drifted keys", drift.size() - unconfirmed.size());
+        }
+        pendingDrift = unconfirmed;
+    }
+
+    public long getTotalTickets() {
+        return totalTickets.get();
+    }
+
+    public long getStatusCount(TicketStatus status) {
+        return count(byStatus, status);
+    }
+
+    public long getPriorityCount(Long priorityId) {
+        return count(byPriority, priorityId);
+    }
+
+    public long getCategoryCount(Long categoryId) {
+        return count(byCategory, categoryId);
+    }
+
+    // Tickets assigned to the agent, in any status
+    public long getAgentCount(Long agentId) {
+        return count(byAgent, agentId);
+    }
+
+    public long getTotalUsers() {
+        return totalUsers.get();
+    }
+
+    public long getRoleCount(User.Role role) {
+        return count(byRole, role);
+    }
+
+    private void addTickets(TicketKey key, long delta) {
+        tickets.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta);
+        totalTickets.addAndGet(delta);
+        if (key.status != null) {
+            byStatus.computeIfAbsent(key.status, k -> new AtomicLong()).addAndGet(delta);
+        }
+        if (key.priority != null) {
+            byPriority.computeIfAbsent(key.priority, k -> new AtomicLong()).addAndGet(delta);
+        }
+        if (key.category != null) {
+            byCategory.computeIfAbsent(key.category, k -> new AtomicLong()).addAndGet(delta);
+        }
+        if (key.agentId != null) {
+            byAgent.computeIfAbsent(key.agentId, k -> new AtomicLong()).addAndGet(delta);
+        }
+    }
+
+    private void addUsers(User.Role role, long delta) {
+        byRole.computeIfAbsent(role, k -> new AtomicLong()).addAndGet(delta);
+        totalUsers.addAndGet(delta);
+    }
+
+    private Map<TicketKey, Long> countTickets() {
+        Map<TicketKey, Long> counts = new HashMap<>();
+        for (Object[] row : ticketRepository.countGroupedByDashboardKey()) {
+            TicketKey key = new TicketKey((TicketStatus) row[0], (Long) row[1], (Long) row[2], (Long) row[3]);
+            counts.put(key, ((Number) row[4]).longValue());
+        }
+        return counts;
+    }
+
+    private Map<User.Role, Long> countUsers() {
+        Map<User.Role, Long> counts = new HashMap<>();
+        for (Object[] row : userRepository.countGroupedByRole()) {
+            counts.put((User.Role) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private static <K> long count(Map<K, AtomicLong> counters, K key) {
+        AtomicLong counter = key != null ? counters.get(key) : null;
+        return counter != null ? counter.get() : 0L;
+    }
+
+    // One cell of status x priority x category x agent; any part may be null
+    private static final class TicketKey {
+        private final TicketStatus status;
+        private final Long priority;
+        private final Long category;
+        private final Long agentId;
+
+        TicketKey(TicketStatus status, Long priority, Long category, Long agentId) {
+            this.status = status;
+            this.priority = priority;
+            this.category = category;
+            this.agentId = agentId;
+        }
+
+        static TicketKey of(TicketListItem ticket) {
+            UserSummary agent = ticket.getAssignedAgent();
+            return new TicketKey(ticket.getStatus(), ticket.getPriorityId(), ticket.getCategoryId(),
+                    agent != null ? agent.getId() : null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TicketKey)) {
+                return false;
+            }
+            TicketKey other = (TicketKey) o;
+            return status == other.status && Objects.equals(priority, other.priority)
+                    && Objects.equals(category, other.category) && Objects.equals(agentId, other.agentId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(status, priority, category, agentId);
+        }
+    }
+}
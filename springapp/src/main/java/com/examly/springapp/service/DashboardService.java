@@ -0,0 +1,7 @@
+package com.examly.springapp.service;
+
+import java.util.Map;
+
+public interface DashboardService {
+    Map<String, Object> getDashboardStats();
+}
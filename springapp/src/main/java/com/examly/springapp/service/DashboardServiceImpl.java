@@ -0,0 +1,79 @@
+package com.examly.springapp.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.examly.springapp.model.Category;
+import com.examly.springapp.model.Priority;
+import com.examly.springapp.model.TicketStatus;
+import com.examly.springapp.repository.TicketRepository;
+
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    // Always reported, as 0 when no such priority or category exists; current names are added from reference data
+    private static final List<String> PRIORITY_KEYS = List.of("Low", "Medium", "High", "Urgent", "Critical");
+    private static final List<String> CATEGORY_KEYS = List.of(
+            "Technical Support", "Software Request", "Hardware Issue", "Account Management", "Network Problem");
+
+    private final TicketRepository ticketRepository;
+    private final DashboardCounters counters;
+    private final ReferenceDataCache referenceData;
+    // One snapshot shared by every dashboard open at the same moment
+    private final RequestCoalescer.Cache<String, Map<String, Object>> statsCache;
+
+    public DashboardServiceImpl(TicketRepository ticketRepository, DashboardCounters counters,
+                                ReferenceDataCache referenceData, RequestCoalescer coalescer,
+                                @Value("${app.coalescer.dashboard.ttl-ms:1000}") long ttlMs,
+                                @Value("${app.coalescer.dashboard.stale-ms:5000}") long staleMs) {
+        this.ticketRepository = ticketRepository;
+        this.counters = counters;
+        this.referenceData = referenceData;
+        this.statsCache = coalescer.create("dashboard.stats", Duration.ofMillis(ttlMs), Duration.ofMillis(staleMs));
+    }
+
+    @Override
+    public Map<String, Object> getDashboardStats() {
+        return statsCache.get("stats", this::computeDashboardStats);
+    }
+
+    private Map<String, Object> computeDashboardStats() {
+        Map<String, Object> stats = new HashMap<>();
+
+        // Counts come from the in-memory counters; no aggregate query runs per request
+        Map<String, Long> statusCounts = new HashMap<>();
+        for (TicketStatus status : TicketStatus.values()) {
+            statusCounts.put(status.getValue(), counters.getStatusCount(status));
+        }
+        long totalTickets = counters.getTotalTickets();
+
+        stats.put("totalTickets", totalTickets);
+        stats.put("totalUsers", counters.getTotalUsers());
+        stats.put("statusCounts", statusCounts);
+        // Open tickets count (all tickets that are NOT closed)
+        stats.put("openTickets", totalTickets - statusCounts.get(TicketStatus.Closed.getValue()));
+        // Counters are kept per id; each one is shown under the name it has now
+        Map<String, Long> priorityCounts = new HashMap<>();
+        PRIORITY_KEYS.forEach(key -> priorityCounts.put(key, 0L));
+        for (Priority priority : referenceData.getAllPriorities()) {
+            priorityCounts.put(priority.getName(), counters.getPriorityCount(priority.getId()));
+        }
+        stats.put("priorityCounts", priorityCounts);
+        Map<String, Long> categoryCounts = new HashMap<>();
+        CATEGORY_KEYS.forEach(key -> categoryCounts.put(key, 0L));
+        for (Category category : referenceData.getAllCategories()) {
+            categoryCounts.put(category.getName(), counters.getCategoryCount(category.getId()));
+        }
+        stats.put("categoryCounts", categoryCounts);
+
+        // Recent tickets (last 5) via ORDER BY created_at DESC LIMIT 5, as list rows rather than entities
+        stats.put("recentTickets", ticketRepository.findRecentListItems(PageRequest.of(0, 5)));
+        return stats;
+    }
+}
@@ -0,0 +1,217 @@
+package com.examly.springapp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.model.IdempotencyRecord;
+import com.examly.springapp.repository.IdempotencyRecordRepository;
+import com.examly.springapp.util.LruCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs a create at most once per Idempotency-Key and replays its response to retries.
+ *
+ * Keys are scoped by endpoint and caller. The create and the idempotency_keys row commit
+ * in one transaction, so a ticket is never kept without its key or the other way round.
+ * Completed responses are also held in a bounded in-memory LRU until they expire, so most
+ * retries are answered without a query. A retry that arrives while the first request is
+ * still running waits for it and gets the same response. If another instance commits the
+ * same key first, the primary key rejects this commit and its response is replayed instead.
+ *
+ * Only 2xx responses are stored, as status code and JSON body; a failed request can be
+ * retried with the same key. Replays carry Idempotent-Replayed: true.
+ */
+@Component
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final LruCache<String, IdempotencyRecord> recent;
+    private final Map<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${app.idempotency.max-entries:10000}") int maxEntries) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.recent = new LruCache<>(maxEntries);
+    }
+
+    /**
+     * Runs action, or replays the response it gave earlier for the same scope, caller and
+     * key. request identifies the call; reusing a key with a different request is a 400.
+     * Without a key the action simply runs.
+     */
+    public <T> ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = sha256(scope + "\n" + caller() + "\n" + key);
+        String requestHash = sha256(toJson(request));
+
+        while (true) {
+            IdempotencyRecord done = recent.get(id);
+            if (done != null && !done.isExpired()) {
+                return replay(done, requestHash);
+            }
+            CompletableFuture<IdempotencyRecord> mine = new CompletableFuture<>();
+            CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(id, mine);
+            if (running != null) {
+                // A concurrent retry: wait for the first request and answer as it did.
+                // If it stored nothing (it failed), go round and run the action ourselves
+                IdempotencyRecord result = running.join();
+                if (result != null) {
+                    return replay(result, requestHash);
+                }
+                continue;
+            }
+
+            IdempotencyRecord stored = null;
+            try {
+                Outcome outcome = runOnce(id, requestHash, action);
+                stored = outcome.record;
+                if (stored != null) {
+                    recent.put(id, stored);
+                }
+                if (outcome.response != null) {
+                    return outcome.response;
+                }
+                return replay(stored, requestHash);
+            } finally {
+                inFlight.remove(id, mine);
+                mine.complete(stored);
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.idempotency.purge-interval-ms:3600000}",
+            fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int removed = repository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            log.info("Purged {} expired idempotency keys", removed);
+        }
+    }
+
+    // Either the fresh response (record set when it was stored) or, with no response, a record to replay
+    private <T> Outcome runOnce(String id, String requestHash, Supplier<ResponseEntity<T>> action) {
+        try {
+            return transactionTemplate.execute(status -> {
+                IdempotencyRecord existing = repository.findById(id).orElse(null);
+                if (existing != null && !existing.isExpired()) {
+                    return new Outcome(null, existing);
+                }
+                if (existing != null) {
+                    repository.delete(existing);
+                    repository.flush();
+                }
+
+                ResponseEntity<T> response = action.get();
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    // Nothing is kept for a failure, including whatever the action wrote
+                    status.setRollbackOnly();
+                    return new Outcome(response, null);
+                }
+                // Serialized here, inside the transaction, so first and replayed bodies are identical
+                JsonNode body = response.getBody() != null ? objectMapper.valueToTree(response.getBody()) : null;
+                IdempotencyRecord record = new IdempotencyRecord(id, requestHash, response.getStatusCodeValue(),
+                        body != null ? body.toString() : null, LocalDateTime.now().plus(ttl));
+                repository.saveAndFlush(record);
+                ResponseEntity<JsonNode> fresh = ResponseEntity.status(response.getStatusCode())
+                        .headers(response.getHeaders()).body(body);
+                return new Outcome(fresh, record);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance stored this key first and our whole transaction rolled back
+            IdempotencyRecord winner = repository.findById(id).orElseThrow(() -> e);
+            return new Outcome(null, winner);
+        }
+    }
+
+    private ResponseEntity<JsonNode> replay(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new BadRequestException(HEADER + " was already used for a different request");
+        }
+        JsonNode body;
+        try {
+            body = record.getResponseBody() != null ? objectMapper.readTree(record.getResponseBody()) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for an idempotency key is not valid JSON", e);
+        }
+        return ResponseEntity.status(record.getStatusCode()).header(REPLAYED_HEADER, "true").body(body);
+    }
+
+    // Keys from different users never meet, so one caller cannot replay another's response
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser) {
+            return "user:" + ((AuthenticatedUser) authentication.getPrincipal()).getId();
+        }
+        return "anonymous";
+    }
+
+    private String toJson(Object request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Request body cannot be fingerprinted for " + HEADER);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Outcome {
+        private final ResponseEntity<?> response;
+        private final IdempotencyRecord record;
+
+        Outcome(ResponseEntity<?> response, IdempotencyRecord record) {
+            this.response = response;
+            this.record = record;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.examly.springapp.service;
 
+import com.examly.springapp.dto.KnowledgeBaseSearchResult;
 import com.examly.springapp.model.KnowledgeBaseArticle;
 import java.util.List;
 import java.util.Optional;
@@ -12,4 +13,5 @@ public interface KnowledgeBaseArticleService {
     void deleteArticle(Long id);
     List<KnowledgeBaseArticle> getArticlesByCategoryId(Long categoryId);
     List<KnowledgeBaseArticle> searchArticlesByTitle(String title);
+    List<KnowledgeBaseSearchResult> searchArticles(String query, int limit);
 }
\ No newline at end of file
@@ -1,22 +1,51 @@
 package com.examly.springapp.service;
 
+import com.examly.springapp.dto.KnowledgeBaseSearchResult;
+import com.examly.springapp.exception.BadRequestException;
 import com.examly.springapp.model.KnowledgeBaseArticle;
 import com.examly.springapp.repository.KnowledgeBaseArticleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class KnowledgeBaseArticleServiceImpl implements KnowledgeBaseArticleService {
+
+    private static final int MAX_SEARCH_RESULTS = 50;
     
     @Autowired
     private KnowledgeBaseArticleRepository kbArticleRepository;
+
+    @Autowired
+    private KnowledgeBaseSearchIndex searchIndex;
+
+    @Autowired
+    private RequestCoalescer coalescer;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Value("${app.coalescer.knowledge-base.ttl-ms:10000}")
+    private long ttlMs;
+
+    @Value("${app.coalescer.knowledge-base.stale-ms:60000}")
+    private long staleMs;
+
+    private RequestCoalescer.Cache<String, List<KnowledgeBaseArticle>> allCache;
+
+    @PostConstruct
+    void initCache() {
+        allCache = coalescer.create("knowledge-base.articles", Duration.ofMillis(ttlMs), Duration.ofMillis(staleMs));
+    }
     
     @Override
     public List<KnowledgeBaseArticle> getAllArticles() {
-        return kbArticleRepository.findAll();
+        return allCache.get("all", () -> List.copyOf(kbArticleRepository.findAll()));
     }
     
     @Override
@@ -26,14 +55,22 @@ public class KnowledgeBaseArticleServiceImpl implements KnowledgeBaseArticleServ
     
     @Override
     public KnowledgeBaseArticle createArticle(KnowledgeBaseArticle article) {
-        return kbArticleRepository.save(article);
+        KnowledgeBaseArticle saved = kbArticleRepository.save(article);
+        searchIndex.index(saved);
+        allCache.invalidateAll();
+        resourceVersions.bump(ResourceVersions.KNOWLEDGE_BASE);
+        return saved;
     }
     
     @Override
     public KnowledgeBaseArticle updateArticle(Long id, KnowledgeBaseArticle article) {
         if (kbArticleRepository.existsById(id)) {
             article.setId(id);
-            return kbArticleRepository.save(article);
+            KnowledgeBaseArticle saved = kbArticleRepository.save(article);
+            searchIndex.index(saved);
+            allCache.invalidateAll();
+            resourceVersions.bump(ResourceVersions.KNOWLEDGE_BASE);
+            return saved;
         }
         throw new RuntimeException("Knowledge Base Article not found with id: " + id);
     }
@@ -41,6 +78,9 @@ public class KnowledgeBaseArticleServiceImpl implements KnowledgeBaseArticleServ
     @Override
     public void deleteArticle(Long id) {
         kbArticleRepository.deleteById(id);
+        searchIndex.remove(id);
+        allCache.invalidateAll();
+        resourceVersions.bump(ResourceVersions.KNOWLEDGE_BASE);
     }
     
     @Override
@@ -52,4 +92,15 @@ public class KnowledgeBaseArticleServiceImpl implements KnowledgeBaseArticleServ
     public List<KnowledgeBaseArticle> searchArticlesByTitle(String title) {
         return kbArticleRepository.findByTitleContainingIgnoreCase(title);
     }
+
+    @Override
+    public List<KnowledgeBaseSearchResult> searchArticles(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("q must not be empty");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        return searchIndex.search(query, limit);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,164 @@
+package com.examly.springapp.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.dto.KnowledgeBaseSearchResult;
+import com.examly.springapp.model.KnowledgeBaseArticle;
+import com.examly.springapp.repository.KnowledgeBaseArticleRepository;
+import com.examly.springapp.search.Bm25Index;
+import com.examly.springapp.search.TextAnalyzer;
+
+/**
+ * Ranked full-text search over knowledge base titles and content.
+ *
+ * The index is built from the table once the application is ready and then kept
+ * current by KnowledgeBaseArticleServiceImpl on every create/update/delete. Title
+ * terms count TITLE_WEIGHT times so a title match outranks the same word in the body.
+ * Only ids and term statistics live in memory; snippets are cut from the top-k rows,
+ * fetched in one query per search.
+ */
+@Component
+public class KnowledgeBaseSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(KnowledgeBaseSearchIndex.class);
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int BUILD_BATCH_SIZE = 500;
+    private static final int SNIPPET_LENGTH = 200;
+
+    private final KnowledgeBaseArticleRepository kbArticleRepository;
+    private final Bm25Index index = new Bm25Index();
+
+    // Ids written through the service while a rebuild runs; the rebuild must not overwrite them with older rows
+    private final Set<Long> changedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean building;
+
+    public KnowledgeBaseSearchIndex(KnowledgeBaseArticleRepository kbArticleRepository) {
+        this.kbArticleRepository = kbArticleRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        changedDuringBuild.clear();
+        building = true;
+        try {
+            index.clear();
+            long lastId = 0;
+            List<KnowledgeBaseArticle> batch;
+            do {
+                batch = kbArticleRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+                for (KnowledgeBaseArticle article : batch) {
+                    if (!changedDuringBuild.contains(article.getId())) {
+                        index.put(article.getId(), termFrequencies(article));
+                    }
+                    lastId = article.getId();
+                }
+            } while (batch.size() == BUILD_BATCH_SIZE);
+        } finally {
+            building = false;
+            changedDuringBuild.clear();
+        }
+        log.info("Indexed {} knowledge base articles in {} ms", index.size(), System.currentTimeMillis() - started);
+    }
+
+    public void index(KnowledgeBaseArticle article) {
+        if (building) {
+            changedDuringBuild.add(article.getId());
+        }
+        index.put(article.getId(), termFrequencies(article));
+    }
+
+    public void remove(Long id) {
+        if (building) {
+            changedDuringBuild.add(id);
+        }
+        index.remove(id);
+    }
+
+    public List<KnowledgeBaseSearchResult> search(String query, int limit) {
+        List<String> queryTerms = TextAnalyzer.analyze(query);
+        if (queryTerms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Bm25Index.Hit> hits = index.search(queryTerms, limit);
+        if (hits.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> ids = hits.stream().map(Bm25Index.Hit::getDocId).collect(Collectors.toList());
+        Map<Long, KnowledgeBaseArticle> articles = kbArticleRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(KnowledgeBaseArticle::getId, Function.identity()));
+        Set<String> terms = new HashSet<>(queryTerms);
+
+        List<KnowledgeBaseSearchResult> results = new ArrayList<>(hits.size());
+        for (Bm25Index.Hit hit : hits) {
+            // Deleted between the index lookup and the fetch
+            KnowledgeBaseArticle article = articles.get(hit.getDocId());
+            if (article != null) {
+                results.add(new KnowledgeBaseSearchResult(article.getId(), article.getTitle(),
+                        hit.getScore(), snippet(article.getContent(), terms)));
+            }
+        }
+        return results;
+    }
+
+    private Map<String, Integer> termFrequencies(KnowledgeBaseArticle article) {
+        Map<String, Integer> freqs = new HashMap<>();
+        for (String term : TextAnalyzer.analyze(article.getTitle())) {
+            freqs.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : TextAnalyzer.analyze(article.getContent())) {
+            freqs.merge(term, 1, Integer::sum);
+        }
+        return freqs;
+    }
+
+    // Window of content centred on the first word whose index term matches the query
+    static String snippet(String content, Set<String> terms) {
+        if (content == null || content.isEmpty()) {
+            return "";
+        }
+        int matchAt = -1;
+        int start = -1;
+        for (int i = 0; i <= content.length() && matchAt < 0; i++) {
+            boolean wordChar = i < content.length() && Character.isLetterOrDigit(content.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = TextAnalyzer.term(content.substring(start, i));
+                if (term != null && terms.contains(term)) {
+                    matchAt = start;
+                }
+                start = -1;
+            }
+        }
+
+        int from = matchAt < 0 ? 0 : Math.max(0, matchAt - SNIPPET_LENGTH / 4);
+        int to = Math.min(content.length(), from + SNIPPET_LENGTH);
+        // Do not cut words in half at either end
+        while (from > 0 && Character.isLetterOrDigit(content.charAt(from - 1)) && from < matchAt) {
+            from++;
+        }
+        while (to < content.length() && Character.isLetterOrDigit(content.charAt(to)) && to > from + 1) {
+            to--;
+        }
+        String window = content.substring(from, to).replaceAll("\\s+", " ").trim();
+        return (from > 0 ? "..." : "") + window + (to < content.length() ? "..." : "");
+    }
+}
@@ -2,10 +2,16 @@ package com.examly.springapp.service;
 
 import com.examly.springapp.model.Priority;
 import com.examly.springapp.repository.PriorityRepository;
+import com.examly.springapp.repository.TicketRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -13,10 +19,41 @@ public class PriorityServiceImpl implements PriorityService {
     
     @Autowired
     private PriorityRepository priorityRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private RequestCoalescer coalescer;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private TicketChangeVersions changeVersions;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.coalescer.lookups.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${app.coalescer.lookups.stale-ms:300000}")
+    private long staleMs;
+
+    private RequestCoalescer.Cache<String, List<Priority>> allCache;
+
+    @PostConstruct
+    void initCache() {
+        allCache = coalescer.create("lookups.priorities", Duration.ofMillis(ttlMs), Duration.ofMillis(staleMs));
+    }
     
     @Override
     public List<Priority> getAllPriorities() {
-        return priorityRepository.findAll();
+        return allCache.get("all", () -> List.copyOf(priorityRepository.findAll()));
     }
     
     @Override
@@ -26,14 +63,43 @@ public class PriorityServiceImpl implements PriorityService {
     
     @Override
     public Priority createPriority(Priority priority) {
-        return priorityRepository.save(priority);
+        if (priority.getLevel() == null) {
+            priority.setLevel(Priority.defaultLevel(priority.getName()));
+        }
+        Priority saved = priorityRepository.save(priority);
+        referenceDataCache.invalidatePriorities();
+        allCache.invalidateAll();
+        resourceVersions.bump(ResourceVersions.PRIORITIES);
+        return saved;
     }
     
     @Override
     public Priority updatePriority(Long id, Priority priority) {
-        if (priorityRepository.existsById(id)) {
+        Optional<Priority> existing = priorityRepository.findById(id);
+        if (existing.isPresent()) {
+            Integer previousLevel = existing.get().getLevel();
+            if (priority.getLevel() == null) {
+                priority.setLevel(previousLevel);
+            }
+            if (priority.getResponseMinutes() == null) {
+                priority.setResponseMinutes(existing.get().getResponseMinutes());
+            }
+            if (priority.getResolutionMinutes() == null) {
+                priority.setResolutionMinutes(existing.get().getResolutionMinutes());
+            }
             priority.setId(id);
-            return priorityRepository.save(priority);
+            Priority saved = priorityRepository.save(priority);
+            // Tickets carry a copy of the level for the work queue's index
+            if (!Objects.equals(previousLevel, saved.getLevel())) {
+                transactionTemplate.executeWithoutResult(status ->
+                        ticketRepository.updatePriorityLevel(id, saved.getLevel(), changeVersions.next()));
+                // Every ticket of this priority has a new version now
+                resourceVersions.evictAllTickets();
+            }
+            referenceDataCache.invalidatePriorities();
+            allCache.invalidateAll();
+            resourceVersions.bump(ResourceVersions.PRIORITIES);
+            return saved;
         }
         throw new RuntimeException("Priority not found with id: " + id);
     }
@@ -41,6 +107,9 @@ public class PriorityServiceImpl implements PriorityService {
     @Override
     public void deletePriority(Long id) {
         priorityRepository.deleteById(id);
+        referenceDataCache.invalidatePriorities();
+        allCache.invalidateAll();
+        resourceVersions.bump(ResourceVersions.PRIORITIES);
     }
     
     @Override
@@ -0,0 +1,191 @@
+package com.examly.springapp.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.model.Category;
+import com.examly.springapp.model.Priority;
+import com.examly.springapp.model.User;
+import com.examly.springapp.repository.CategoryRepository;
+import com.examly.springapp.repository.PriorityRepository;
+import com.examly.springapp.repository.UserRepository;
+import com.examly.springapp.util.LruCache;
+
+/**
+ * In-process cache for the reference rows ticket writes resolve on every request.
+ *
+ * Priorities and categories are small tables, so each is held as one immutable
+ * snapshot indexed by id and by lower-cased name, with the "Allowed: ..." message
+ * precomputed. Users are held in a bounded LRU keyed by id. Writers call the
+ * invalidate/evict methods; a generation counter keeps a load that started before
+ * an invalidation from publishing stale rows.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private final PriorityRepository priorityRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+
+    private final LruCache<Long, User> users;
+
+    private volatile ReferenceSet<Priority> priorities;
+    private volatile ReferenceSet<Category> categories;
+    private long priorityGeneration;
+    private long categoryGeneration;
+    private long userGeneration;
+
+    public ReferenceDataCache(PriorityRepository priorityRepository,
+                              CategoryRepository categoryRepository,
+                              UserRepository userRepository,
+                              @Value("${app.cache.users.max-entries:10000}") int maxUsers) {
+        this.priorityRepository = priorityRepository;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.users = new LruCache<>(maxUsers);
+    }
+
+    public Optional<Priority> findPriorityById(Long id) {
+        return Optional.ofNullable(priorities().byId.get(id));
+    }
+
+    public Optional<Priority> findPriorityByName(String name) {
+        return Optional.ofNullable(priorities().byName.get(normalize(name)));
+    }
+
+    public String getAllowedPriorityNames() {
+        return priorities().allowedNames;
+    }
+
+    public List<Priority> getAllPriorities() {
+        return priorities().all;
+    }
+
+    public Optional<Category> findCategoryById(Long id) {
+        return Optional.ofNullable(categories().byId.get(id));
+    }
+
+    public Optional<Category> findCategoryByName(String name) {
+        return Optional.ofNullable(categories().byName.get(normalize(name)));
+    }
+
+    public String getAllowedCategoryNames() {
+        return categories().allowedNames;
+    }
+
+    public List<Category> getAllCategories() {
+        return categories().all;
+    }
+
+    public Optional<User> findUserById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        User cached = users.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation;
+        synchronized (users) {
+            generation = userGeneration;
+        }
+        Optional<User> loaded = userRepository.findById(id);
+        loaded.ifPresent(user -> {
+            synchronized (users) {
+                if (generation == userGeneration) {
+                    users.put(id, user);
+                }
+            }
+        });
+        return loaded;
+    }
+
+    public synchronized void invalidatePriorities() {
+        priorityGeneration++;
+        priorities = null;
+    }
+
+    public synchronized void invalidateCategories() {
+        categoryGeneration++;
+        categories = null;
+    }
+
+    public void evictUser(Long id) {
+        synchronized (users) {
+            userGeneration++;
+            users.remove(id);
+        }
+    }
+
+    private ReferenceSet<Priority> priorities() {
+        ReferenceSet<Priority> current = priorities;
+        if (current != null) {
+            return current;
+        }
+        long generation;
+        synchronized (this) {
+            generation = priorityGeneration;
+        }
+        ReferenceSet<Priority> loaded = new ReferenceSet<>(priorityRepository.findAll(), Priority::getId, Priority::getName);
+        synchronized (this) {
+            if (generation == priorityGeneration) {
+                priorities = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private ReferenceSet<Category> categories() {
+        ReferenceSet<Category> current = categories;
+        if (current != null) {
+            return current;
+        }
+        long generation;
+        synchronized (this) {
+            generation = categoryGeneration;
+        }
+        ReferenceSet<Category> loaded = new ReferenceSet<>(categoryRepository.findAll(), Category::getId, Category::getName);
+        synchronized (this) {
+            if (generation == categoryGeneration) {
+                categories = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class ReferenceSet<T> {
+        private final List<T> all;
+        private final Map<Long, T> byId = new HashMap<>();
+        private final Map<String, T> byName = new HashMap<>();
+        private final String allowedNames;
+
+        private ReferenceSet(List<T> rows, Function<T, Long> id, Function<T, String> name) {
+            this.all = Collections.unmodifiableList(rows);
+            for (T row : rows) {
+                byId.put(id.apply(row), row);
+                if (name.apply(row) != null) {
+                    byName.put(normalize(name.apply(row)), row);
+                }
+            }
+            this.allowedNames = rows.stream()
+                    .map(name)
+                    .filter(n -> n != null)
+                    .sorted(String.CASE_INSENSITIVE_ORDER)
+                    .collect(Collectors.collectingAndThen(Collectors.joining(", "),
+                            joined -> joined.isEmpty() ? "none configured" : joined));
+        }
+    }
+}
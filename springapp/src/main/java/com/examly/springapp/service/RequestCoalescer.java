@@ -0,0 +1,199 @@
+package com.examly.springapp.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Single-flight loading with a short TTL for read paths that many clients hit at once.
+ *
+ * Each named cache keeps the last value per key. A fresh value is returned as is. Within
+ * the stale window after it expires, the old value is still returned while one background
+ * load replaces it. Past that, the first caller loads and every concurrent caller for the
+ * same key waits on that load instead of running its own. Failed loads are not cached.
+ *
+ * Every lookup is counted in coalescer.requests, tagged with the cache name and one of
+ * hit, stale, miss or coalesced; loads are timed in coalescer.loads.
+ */
+@Component
+public class RequestCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService refresher;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refresher = Executors.newFixedThreadPool(2, task -> {
+            Thread thread = new Thread(task, "coalescer-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public <K, V> Cache<K, V> create(String name, Duration ttl, Duration staleWindow) {
+        return new Cache<>(name, ttl.toNanos(), staleWindow.toNanos());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    public final class Cache<K, V> {
+
+        private final String name;
+        private final long ttlNanos;
+        private final long staleNanos;
+        private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+        private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+        // Bumped by invalidation so a load that started earlier does not store its result
+        private final AtomicLong generation = new AtomicLong();
+
+        private final Counter hits;
+        private final Counter staleHits;
+        private final Counter misses;
+        private final Counter coalesced;
+        private final Timer loads;
+
+        private Cache(String name, long ttlNanos, long staleNanos) {
+            this.name = name;
+            this.ttlNanos = ttlNanos;
+            this.staleNanos = staleNanos;
+            this.hits = counter("hit");
+            this.staleHits = counter("stale");
+            this.misses = counter("miss");
+            this.coalesced = counter("coalesced");
+            this.loads = Timer.builder("coalescer.loads").tag("cache", name).register(meterRegistry);
+        }
+
+        public V get(K key, Supplier<V> loader) {
+            long now = System.nanoTime();
+            Entry<V> entry = entries.get(key);
+            if (entry != null && now - entry.freshUntil < 0) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null && now - entry.staleUntil < 0) {
+                staleHits.increment();
+                refreshInBackground(key, loader);
+                return entry.value;
+            }
+
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                coalesced.increment();
+                return await(running);
+            }
+            // Another caller may have finished loading between our read and taking the slot
+            Entry<V> latest = entries.get(key);
+            if (latest != null && latest != entry && System.nanoTime() - latest.freshUntil < 0) {
+                inFlight.remove(key, mine);
+                mine.complete(latest.value);
+                coalesced.increment();
+                return latest.value;
+            }
+            misses.increment();
+            return load(key, loader, mine);
+        }
+
+        public void invalidate(K key) {
+            generation.incrementAndGet();
+            entries.remove(key);
+        }
+
+        public void invalidateAll() {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+
+        private void refreshInBackground(K key, Supplier<V> loader) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            if (inFlight.putIfAbsent(key, mine) != null) {
+                return;
+            }
+            try {
+                refresher.execute(() -> {
+                    try {
+                        load(key, loader, mine);
+                    } catch (RuntimeException e) {
+                        log.warn("Background refresh of {} failed; serving the stale value until it expires", name, e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(key, mine);
+                mine.cancel(false);
+            }
+        }
+
+        private V load(K key, Supplier<V> loader, CompletableFuture<V> mine) {
+            long loadGeneration = generation.get();
+            try {
+                V value = loads.record(loader);
+                if (generation.get() == loadGeneration) {
+                    long loadedAt = System.nanoTime();
+                    entries.put(key, new Entry<>(value, loadedAt + ttlNanos, loadedAt + ttlNanos + staleNanos));
+                }
+                mine.complete(value);
+                return value;
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+
+        private V await(CompletableFuture<V> running) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                // Waiters see the loader's own exception, as if they had run it
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        private Counter counter(String result) {
+            return Counter.builder("coalescer.requests")
+                    .tag("cache", name)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long freshUntil;
+        private final long staleUntil;
+
+        private Entry(V value, long freshUntil, long staleUntil) {
+            this.value = value;
+            this.freshUntil = freshUntil;
+            this.staleUntil = staleUntil;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.examly.springapp.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.examly.springapp.event.TicketChangedEvent;
+import com.examly.springapp.event.UserChangedEvent;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.repository.TicketRepository;
+import com.examly.springapp.util.LruCache;
+
+/**
+ * Versions behind the strong ETags on conditional GETs.
+ *
+ * Collections carry a per-table counter that writers bump once their change has
+ * committed; the counters live in memory, so every tag also includes an epoch taken
+ * at startup. A ticket's tag is its optimistic-lock version plus the counters of the tables
+ * its detail view joins. Ticket versions are cached and dropped on committed ticket events,
+ * so a matching If-None-Match is answered without a query. The same tag is accepted as
+ * If-Match on ticket writes, where only the version part is compared.
+ *
+ * Callers must take the tag before loading the body: a write that lands in between
+ * then yields a newer body under an older tag, which only costs the next request a 200.
+ */
+@Component
+public class ResourceVersions {
+
+    public static final String CATEGORIES = "categories";
+    public static final String PRIORITIES = "priorities";
+    public static final String KNOWLEDGE_BASE = "kb";
+    public static final String USERS = "users";
+
+    private final TicketRepository ticketRepository;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, AtomicLong> tables = new ConcurrentHashMap<>();
+    private final LruCache<Long, Long> ticketVersions;
+    // Guarded by ticketVersions; keeps a lookup that raced an eviction from caching the old version
+    private long ticketGeneration;
+
+    public ResourceVersions(TicketRepository ticketRepository,
+                            @Value("${app.etag.tickets.max-entries:10000}") int maxTickets) {
+        this.ticketRepository = ticketRepository;
+        this.ticketVersions = new LruCache<>(maxTickets);
+    }
+
+    public String tableTag(String table) {
+        return "\"" + table + "-" + epoch + "-" + version(table) + "\"";
+    }
+
+    public void bump(String table) {
+        tables.computeIfAbsent(table, t -> new AtomicLong()).incrementAndGet();
+    }
+
+    // Null when the ticket does not exist; the caller falls through to its normal 404
+    public String ticketTag(Long id) {
+        Long version = ticketVersion(id);
+        return version != null ? ticketTag(id, version) : null;
+    }
+
+    // Tag for a ticket whose version is already known, e.g. the one a write just returned
+    public String ticketTag(Long id, long version) {
+        return "\"ticket-" + id + "-" + version + "-" + epoch + "-"
+                + version(USERS) + "." + version(CATEGORIES) + "." + version(PRIORITIES) + "\"";
+    }
+
+    /**
+     * The ticket version an If-Match header asks for: null when the header is absent or
+     * "*", otherwise the version inside a tag from ticketTag, or a bare quoted version as
+     * in the ticket's JSON. Tags from an earlier run or with other reference-data counters
+     * still match; only the ticket's own version counts. A tag for another ticket yields
+     * -1, which never matches.
+     */
+    public Long expectedTicketVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"") || tag.indexOf(',') >= 0) {
+            throw new BadRequestException("If-Match must be a single strong ETag");
+        }
+        String[] parts = tag.substring(1, tag.length() - 1).split("-");
+        try {
+            if (parts.length == 1) {
+                return Long.parseLong(parts[0]);
+            }
+            if (parts.length < 3 || !parts[0].equals("ticket")) {
+                throw new BadRequestException("If-Match must be a single strong ETag");
+            }
+            return Long.parseLong(parts[1]) == id ? Long.parseLong(parts[2]) : -1L;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("If-Match must be a single strong ETag");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        synchronized (ticketVersions) {
+            ticketGeneration++;
+            ticketVersions.remove(event.getTicketId());
+        }
+    }
+
+    // For set-based writes that move the version of an unknown number of tickets at once
+    public void evictAllTickets() {
+        synchronized (ticketVersions) {
+            ticketGeneration++;
+            ticketVersions.clear();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        bump(USERS);
+    }
+
+    private Long ticketVersion(Long id) {
+        long generation;
+        synchronized (ticketVersions) {
+            Long cached = ticketVersions.get(id);
+            if (cached != null) {
+                return cached;
+            }
+            generation = ticketGeneration;
+        }
+        Long loaded = ticketRepository.findVersionById(id).orElse(null);
+        if (loaded != null) {
+            synchronized (ticketVersions) {
+                if (generation == ticketGeneration) {
+                    ticketVersions.put(id, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private long version(String table) {
+        AtomicLong counter = tables.get(table);
+        return counter != null ? counter.get() : 0L;
+    }
+}
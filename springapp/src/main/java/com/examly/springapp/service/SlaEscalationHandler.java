@@ -0,0 +1,121 @@
+package com.examly.springapp.service;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.event.SlaBreachedEvent;
+import com.examly.springapp.model.Priority;
+import com.examly.springapp.model.Ticket;
+import com.examly.springapp.model.TicketHistory;
+import com.examly.springapp.model.User;
+import com.examly.springapp.repository.TicketHistoryRepository;
+import com.examly.springapp.repository.TicketRepository;
+
+/**
+ * Escalates a ticket whose SLA target was missed. A missed response target hands the
+ * ticket to another agent; a missed resolution target raises it to the next priority
+ * level. Either way a history entry records the breach.
+ *
+ * Runs synchronously inside SlaScheduler's transaction, on the ticket it already holds
+ * locked, so the escalation commits together with the breach. Changes go through the managed
+ * entity rather than a bulk UPDATE: SlaScheduler then saves it, which bumps @Version, and
+ * stamps the change version and publishes ESCALATED once these listeners have run.
+ */
+@Component
+public class SlaEscalationHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(SlaEscalationHandler.class);
+
+    private static final DateTimeFormatter DUE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final TicketRepository ticketRepository;
+    private final TicketHistoryRepository ticketHistoryRepository;
+    private final ReferenceDataCache referenceData;
+    private final AgentAssignmentEngine assignmentEngine;
+    private final boolean reassign;
+    private final boolean bumpPriority;
+    private final Long actorUserId;
+
+    public SlaEscalationHandler(TicketRepository ticketRepository,
+                                TicketHistoryRepository ticketHistoryRepository,
+                                ReferenceDataCache referenceData,
+                                AgentAssignmentEngine assignmentEngine,
+                                @Value("${app.sla.escalation.reassign:true}") boolean reassign,
+                                @Value("${app.sla.escalation.bump-priority:true}") boolean bumpPriority,
+                                @Value("${app.sla.escalation.actor-user-id:#{null}}") Long actorUserId) {
+        this.ticketRepository = ticketRepository;
+        this.ticketHistoryRepository = ticketHistoryRepository;
+        this.referenceData = referenceData;
+        this.assignmentEngine = assignmentEngine;
+        this.reassign = reassign;
+        this.bumpPriority = bumpPriority;
+        this.actorUserId = actorUserId;
+    }
+
+    @EventListener
+    public void onBreach(SlaBreachedEvent event) {
+        // Already in the persistence context under SlaScheduler's row lock; no query
+        Ticket ticket = ticketRepository.findById(event.getTicketId()).orElse(null);
+        if (ticket == null) {
+            return;
+        }
+
+        StringBuilder comment = new StringBuilder();
+        if (event.getTarget() == SlaBreachedEvent.Target.RESPONSE) {
+            comment.append("SLA response target missed (due ").append(DUE_FORMAT.format(event.getDueAt())).append(")");
+            if (reassign) {
+                Long current = ticket.getAssignedAgent() != null ? ticket.getAssignedAgent().getId() : null;
+                Optional<User> next = assignmentEngine.assign(categoryId(ticket), current);
+                next.ifPresent(agent -> {
+                    ticket.setAssignedAgent(agent);
+                    comment.append("; reassigned to agent ").append(agent.getId());
+                });
+            }
+        } else {
+            comment.append("SLA resolution target missed (due ").append(DUE_FORMAT.format(event.getDueAt())).append(")");
+            if (bumpPriority) {
+                nextPriority(ticket.getPriority()).ifPresent(priority -> {
+                    ticket.setPriority(priority);
+                    comment.append("; priority raised to ").append(priority.getName());
+                });
+            }
+        }
+
+        TicketHistory history = new TicketHistory();
+        history.setTicket(ticket);
+        history.setUser(actor(ticket));
+        history.setComment(comment.toString());
+        ticketHistoryRepository.save(history);
+        log.info("Ticket {}: {}", ticket.getId(), comment);
+    }
+
+    // The lowest priority level above the ticket's current one, if any
+    private Optional<Priority> nextPriority(Priority current) {
+        int level = current != null && current.getLevel() != null ? current.getLevel() : 0;
+        return referenceData.getAllPriorities().stream()
+                .filter(p -> p.getLevel() != null && p.getLevel() > level)
+                .min(Comparator.comparing(Priority::getLevel));
+    }
+
+    // History needs a user: the configured system account, otherwise the submitter
+    private User actor(Ticket ticket) {
+        if (actorUserId != null) {
+            Optional<User> actor = referenceData.findUserById(actorUserId);
+            if (actor.isPresent()) {
+                return actor.get();
+            }
+        }
+        return ticket.getSubmitter();
+    }
+
+    private static Long categoryId(Ticket ticket) {
+        return ticket.getCategory() != null ? ticket.getCategory().getId() : null;
+    }
+}
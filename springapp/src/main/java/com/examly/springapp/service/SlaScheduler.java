@@ -0,0 +1,201 @@
+package com.examly.springapp.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.examly.springapp.dto.TicketListItem;
+import com.examly.springapp.event.SlaBreachedEvent;
+import com.examly.springapp.event.TicketChangedEvent;
+import com.examly.springapp.model.Priority;
+import com.examly.springapp.model.Ticket;
+import com.examly.springapp.model.TicketStatus;
+import com.examly.springapp.repository.TicketRepository;
+import com.examly.springapp.util.HierarchicalTimingWheel;
+
+/**
+ * Tracks SLA deadlines and records the ones that are missed.
+ *
+ * A ticket gets a response deadline (leave New) and a resolution deadline (reach Resolved
+ * or Closed) from its priority's targets when it is created or its priority changes.
+ * sla_due_at holds the earliest one still pending, and a timing wheel holds one timer per
+ * ticket at that time, so nothing polls the database. On startup the wheel is rebuilt
+ * from one scan of idx_tickets_sla_due.
+ *
+ * Status changes do not touch the timers. When a timer fires the ticket is re-read under
+ * a row lock and only deadlines still pending are checked: a ticket that moved on in time
+ * just has its next deadline, if any, armed. A missed deadline is stamped on the row and
+ * published as a SlaBreachedEvent in the same transaction, where SlaEscalationHandler acts
+ * on it.
+ */
+@Component
+public class SlaScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(SlaScheduler.class);
+
+    // A timer whose evaluation failed is retried after this long
+    private static final long RETRY_MS = 60_000;
+
+    private final TicketRepository ticketRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher events;
+    private final TicketChangeVersions changeVersions;
+    private final HierarchicalTimingWheel<Long> wheel;
+    // Deadlines already past when armed; evaluated on the next tick
+    private final Queue<Long> overdue = new ConcurrentLinkedQueue<>();
+
+    public SlaScheduler(TicketRepository ticketRepository,
+                        JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        ApplicationEventPublisher events,
+                        TicketChangeVersions changeVersions,
+                        @Value("${app.sla.tick-ms:1000}") long tickMs,
+                        @Value("${app.sla.wheel-size:512}") int wheelSize) {
+        this.ticketRepository = ticketRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.events = events;
+        this.changeVersions = changeVersions;
+        this.wheel = new HierarchicalTimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * Sets the ticket's deadlines from its priority's targets, counted from createdAt (or
+     * from now for a ticket not saved yet). Targets already missed stay recorded.
+     */
+    public void applyTargets(Ticket ticket) {
+        LocalDateTime from = ticket.getCreatedAt() != null ? ticket.getCreatedAt() : LocalDateTime.now();
+        Priority priority = ticket.getPriority();
+        Duration response = priority != null ? priority.responseTarget() : null;
+        Duration resolution = priority != null ? priority.resolutionTarget() : null;
+        ticket.setResponseDueAt(response != null ? from.plus(response) : null);
+        ticket.setResolutionDueAt(resolution != null ? from.plus(resolution) : null);
+        ticket.setSlaDueAt(nextDue(ticket));
+    }
+
+    // Arms the ticket's timer once the current transaction commits
+    public void track(Ticket ticket) {
+        track(ticket.getId(), ticket.getSlaDueAt());
+    }
+
+    private void track(Long id, LocalDateTime due) {
+        if (due == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                arm(id, due);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        RowCallbackHandler armRow = rs -> arm(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime());
+        jdbcTemplate.query("SELECT id, sla_due_at FROM tickets WHERE sla_due_at IS NOT NULL", armRow);
+        log.info("SLA scheduler armed {} timers ({} already due)", wheel.size(), overdue.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.sla.tick-ms:1000}")
+    public void tick() {
+        List<Long> due = new ArrayList<>(wheel.advance(System.currentTimeMillis()));
+        for (Long id = overdue.poll(); id != null; id = overdue.poll()) {
+            due.add(id);
+        }
+        for (Long id : due) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> evaluate(id));
+            } catch (RuntimeException e) {
+                log.warn("SLA check for ticket {} failed; retrying in {} ms", id, RETRY_MS, e);
+                wheel.schedule(id, System.currentTimeMillis() + RETRY_MS);
+            }
+        }
+    }
+
+    private void evaluate(Long id) {
+        Ticket ticket = ticketRepository.lockById(id).orElse(null);
+        if (ticket == null || ticket.getSlaDueAt() == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (ticket.getSlaDueAt().isAfter(now)) {
+            // Deadline moved later since this timer was armed
+            track(ticket);
+            return;
+        }
+
+        List<SlaBreachedEvent> breaches = new ArrayList<>(2);
+        if (responsePending(ticket) && !ticket.getResponseDueAt().isAfter(now)) {
+            ticket.setResponseBreachedAt(now);
+            breaches.add(new SlaBreachedEvent(id, SlaBreachedEvent.Target.RESPONSE, ticket.getResponseDueAt(), now));
+        }
+        if (resolutionPending(ticket) && !ticket.getResolutionDueAt().isAfter(now)) {
+            ticket.setResolutionBreachedAt(now);
+            breaches.add(new SlaBreachedEvent(id, SlaBreachedEvent.Target.RESOLUTION, ticket.getResolutionDueAt(), now));
+        }
+        if (breaches.isEmpty()) {
+            // Only the stale deadline moves. sla_due_at is not part of any response, so it is written
+            // without touching the entity: the version, ETags and change feed stay as they are
+            LocalDateTime next = nextDue(ticket);
+            ticketRepository.updateSlaDueAt(id, next);
+            track(id, next);
+            return;
+        }
+
+        ticket.setSlaDueAt(nextDue(ticket));
+        // The list view has no SLA fields, so this is still the row as it was
+        TicketListItem previous = TicketListItem.from(ticket);
+        // Escalation listeners run here, on the same managed ticket
+        breaches.forEach(events::publishEvent);
+        // The version moves with this save, so the change is published like any other write
+        ticket.setChangeVersion(changeVersions.next());
+        events.publishEvent(TicketChangedEvent.changed(TicketChangedEvent.Type.ESCALATED,
+                previous, TicketListItem.from(ticket)));
+        ticketRepository.save(ticket);
+        track(ticket);
+    }
+
+    private void arm(Long id, LocalDateTime due) {
+        if (!wheel.schedule(id, due.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())) {
+            overdue.add(id);
+        }
+    }
+
+    private static LocalDateTime nextDue(Ticket ticket) {
+        LocalDateTime next = responsePending(ticket) ? ticket.getResponseDueAt() : null;
+        if (resolutionPending(ticket) && (next == null || ticket.getResolutionDueAt().isBefore(next))) {
+            next = ticket.getResolutionDueAt();
+        }
+        return next;
+    }
+
+    private static boolean responsePending(Ticket ticket) {
+        return ticket.getStatus() == TicketStatus.New
+                && ticket.getResponseDueAt() != null && ticket.getResponseBreachedAt() == null;
+    }
+
+    private static boolean resolutionPending(Ticket ticket) {
+        return (ticket.getStatus() == TicketStatus.New || ticket.getStatus() == TicketStatus.In_Progress)
+                && ticket.getResolutionDueAt() != null && ticket.getResolutionBreachedAt() == null;
+    }
+}
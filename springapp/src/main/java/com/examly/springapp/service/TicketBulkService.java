@@ -0,0 +1,11 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.BulkTicketUpdateRequest;
+import com.examly.springapp.dto.BulkUpdateResult;
+
+public interface TicketBulkService {
+
+    BulkUpdateResult updateStatus(BulkTicketUpdateRequest req, AuthenticatedUser caller);
+
+    BulkUpdateResult assign(BulkTicketUpdateRequest req, AuthenticatedUser caller);
+}
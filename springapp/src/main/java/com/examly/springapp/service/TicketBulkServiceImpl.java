@@ -0,0 +1,228 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.examly.springapp.dto.BulkTicketUpdateRequest;
+import com.examly.springapp.dto.BulkUpdateResult;
+import com.examly.springapp.dto.TicketFilter;
+import com.examly.springapp.dto.TicketListItem;
+import com.examly.springapp.event.TicketChangedEvent;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.ForbiddenException;
+import com.examly.springapp.model.TicketHistory;
+import com.examly.springapp.model.TicketStatus;
+import com.examly.springapp.model.User;
+import com.examly.springapp.repository.TicketHistoryRepository;
+import com.examly.springapp.repository.TicketRepository;
+
+/**
+ * Set-based status changes and reassignment.
+ *
+ * Targets are processed in chunks of CHUNK_SIZE ids, each in its own transaction:
+ * lock the chunk's eligible rows (SELECT ... FOR UPDATE), apply one UPDATE, then
+ * insert the matching ticket_history rows as a JDBC batch. Filter requests walk
+ * the keyset id index, so no chunk holds locks on more than CHUNK_SIZE rows.
+ */
+@Service
+public class TicketBulkServiceImpl implements TicketBulkService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_IDS = 10000;
+
+    private final TicketRepository ticketRepository;
+    private final TicketHistoryRepository ticketHistoryRepository;
+    private final ReferenceDataCache referenceData;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher events;
+    private final TicketChangeVersions changeVersions;
+
+    public TicketBulkServiceImpl(TicketRepository ticketRepository,
+                                 TicketHistoryRepository ticketHistoryRepository,
+                                 ReferenceDataCache referenceData,
+                                 TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher events,
+                                 TicketChangeVersions changeVersions) {
+        this.ticketRepository = ticketRepository;
+        this.ticketHistoryRepository = ticketHistoryRepository;
+        this.referenceData = referenceData;
+        this.transactionTemplate = transactionTemplate;
+        this.events = events;
+        this.changeVersions = changeVersions;
+    }
+
+    @Override
+    public BulkUpdateResult updateStatus(BulkTicketUpdateRequest req, AuthenticatedUser caller) {
+        User actor = requireActor(caller);
+        if (req.getStatus() == null) {
+            throw new BadRequestException("status is required");
+        }
+        TicketStatus target = parseStatus(req.getStatus());
+        Set<TicketStatus> sources = TicketStatus.sourcesFor(target);
+        LocalDateTime resolvedAt = target == TicketStatus.Resolved || target == TicketStatus.Closed
+                ? LocalDateTime.now() : null;
+
+        return forEachChunk(req, chunk -> {
+            // Rows not in a valid source status are neither locked nor touched
+            List<Object[]> rows = ticketRepository.lockStatusesByIdIn(chunk, sources);
+            if (rows.isEmpty()) {
+                return Collections.<Long>emptyList();
+            }
+            List<Long> eligible = new ArrayList<>(rows.size());
+            List<TicketHistory> history = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                TicketStatus from = (TicketStatus) row[1];
+                eligible.add(id);
+                history.add(historyRow(id, actor, req.getComment(), from.getValue(), target.getValue()));
+            }
+            List<TicketListItem> before = ticketRepository.findListItemsByIdIn(eligible);
+            // One version for the whole chunk; the feed orders rows that share it by id
+            ticketRepository.updateStatusByIdIn(eligible, sources, target, resolvedAt, changeVersions.next());
+            ticketHistoryRepository.saveAll(history);
+            publish(TicketChangedEvent.Type.STATUS_CHANGED, before, eligible);
+            return eligible;
+        });
+    }
+
+    @Override
+    public BulkUpdateResult assign(BulkTicketUpdateRequest req, AuthenticatedUser caller) {
+        User actor = requireActor(caller);
+        if (req.getAssignedAgentId() == null) {
+            throw new BadRequestException("assignedAgentId is required");
+        }
+        User agent = referenceData.findUserById(req.getAssignedAgentId())
+                .orElseThrow(() -> new BadRequestException("Invalid assignedAgentId"));
+        if (agent.getRole() != User.Role.AGENT && agent.getRole() != User.Role.ADMIN) {
+            throw new BadRequestException("Tickets can only be assigned to agents and admins");
+        }
+
+        return forEachChunk(req, chunk -> {
+            List<Object[]> rows = ticketRepository.lockAssignmentsByIdIn(chunk);
+            List<Long> eligible = new ArrayList<>(rows.size());
+            List<TicketHistory> history = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                Long currentAgentId = (Long) row[1];
+                // Already assigned to this agent: nothing to change or record
+                if (Objects.equals(currentAgentId, agent.getId())) {
+                    continue;
+                }
+                eligible.add(id);
+                String comment = req.getComment() != null ? req.getComment()
+                        : "Reassigned from " + (currentAgentId != null ? "agent " + currentAgentId : "unassigned")
+                        + " to agent " + agent.getId();
+                history.add(historyRow(id, actor, comment, null, null));
+            }
+            if (eligible.isEmpty()) {
+                return eligible;
+            }
+            List<TicketListItem> before = ticketRepository.findListItemsByIdIn(eligible);
+            ticketRepository.updateAssignedAgentByIdIn(eligible, agent, changeVersions.next());
+            ticketHistoryRepository.saveAll(history);
+            publish(TicketChangedEvent.Type.ASSIGNED, before, eligible);
+            return eligible;
+        });
+    }
+
+    // One projection query for the chunk's rows as they are after the UPDATE; sent once the chunk commits
+    private void publish(TicketChangedEvent.Type type, List<TicketListItem> before, List<Long> ids) {
+        Map<Long, TicketListItem> previous = new HashMap<>();
+        for (TicketListItem item : before) {
+            previous.put(item.getId(), item);
+        }
+        for (TicketListItem item : ticketRepository.findListItemsByIdIn(ids)) {
+            events.publishEvent(TicketChangedEvent.changed(type, previous.get(item.getId()), item));
+        }
+    }
+
+    // Runs the chunk operation over the request's ids or filter and totals the outcome
+    private BulkUpdateResult forEachChunk(BulkTicketUpdateRequest req, Function<List<Long>, List<Long>> operation) {
+        boolean byIds = req.getIds() != null && !req.getIds().isEmpty();
+        if (byIds == (req.getFilter() != null)) {
+            throw new BadRequestException("Provide either ids or filter");
+        }
+
+        if (byIds) {
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(req.getIds()));
+            if (ids.size() > MAX_IDS) {
+                throw new BadRequestException("At most " + MAX_IDS + " ids can be updated per request");
+            }
+            long updated = 0;
+            List<Long> skipped = new ArrayList<>();
+            for (int start = 0; start < ids.size(); start += CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(start, Math.min(start + CHUNK_SIZE, ids.size()));
+                Set<Long> changed = new LinkedHashSet<>(inTransaction(operation, chunk));
+                updated += changed.size();
+                for (Long id : chunk) {
+                    if (!changed.contains(id)) skipped.add(id);
+                }
+            }
+            return new BulkUpdateResult(ids.size(), updated, skipped);
+        }
+
+        TicketFilter filter = req.getFilter();
+        TicketStatus filterStatus = filter.getStatus() != null && !filter.getStatus().isBlank()
+                ? parseStatus(filter.getStatus()) : null;
+        long matched = 0;
+        long updated = 0;
+        Long afterId = null;
+        while (true) {
+            List<Long> chunk = ticketRepository.findIdPage(filter, filterStatus, afterId, CHUNK_SIZE);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            matched += chunk.size();
+            updated += inTransaction(operation, chunk).size();
+            if (chunk.size() < CHUNK_SIZE) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1);
+        }
+        return new BulkUpdateResult(matched, updated, null);
+    }
+
+    private List<Long> inTransaction(Function<List<Long>, List<Long>> operation, List<Long> chunk) {
+        List<Long> changed = transactionTemplate.execute(status -> operation.apply(chunk));
+        return changed != null ? changed : Collections.emptyList();
+    }
+
+    private TicketHistory historyRow(Long ticketId, User actor, String comment, String from, String to) {
+        TicketHistory history = new TicketHistory();
+        history.setTicket(ticketRepository.getReferenceById(ticketId));
+        history.setUser(actor);
+        history.setComment(comment);
+        history.setStatusChangeFrom(from);
+        history.setStatusChangeTo(to);
+        return history;
+    }
+
+    // Bulk changes are recorded against the authenticated caller, who must be an agent or admin
+    private User requireActor(AuthenticatedUser caller) {
+        if (!User.Role.AGENT.name().equals(caller.getRole()) && !User.Role.ADMIN.name().equals(caller.getRole())) {
+            throw new ForbiddenException("Only agents and admins can bulk-update tickets");
+        }
+        return referenceData.findUserById(caller.getId())
+                .orElseThrow(() -> new ForbiddenException("Caller no longer exists"));
+    }
+
+    private TicketStatus parseStatus(String raw) {
+        try {
+            return TicketStatus.fromString(raw);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+}
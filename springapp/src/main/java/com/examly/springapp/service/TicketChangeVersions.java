@@ -0,0 +1,89 @@
+package com.examly.springapp.service;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out the monotonically increasing change versions stamped on tickets and
+ * tombstones, and tells the change feed how far it may safely read.
+ *
+ * Versions are allocated when a write happens but become visible only when its
+ * transaction commits, so a later version can commit before an earlier one. A reader
+ * that moved its cursor past the later one would never see the earlier row. Every
+ * allocated version therefore stays "in flight" until its transaction completes, and
+ * stableVersion() stops just below the oldest one still in flight.
+ */
+@Component
+public class TicketChangeVersions {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketChangeVersions.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Guarded by this
+    private long lastAllocated;
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+
+    // EntityManagerFactory is injected so the schema (and change_version columns) exists before we run
+    public TicketChangeVersions(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public synchronized void seed() {
+        Long maxTicket = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(change_version), 0) FROM tickets", Long.class);
+        Long maxTombstone = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(change_version), 0) FROM ticket_tombstones", Long.class);
+        lastAllocated = Math.max(maxTicket, maxTombstone);
+
+        // Tickets written before versions existed all join the feed at one version; (version, id) keeps them ordered
+        int backfilled = jdbcTemplate.update(
+                "UPDATE tickets SET change_version = ? WHERE change_version IS NULL", lastAllocated + 1);
+        if (backfilled > 0) {
+            lastAllocated++;
+            log.info("Stamped {} existing tickets with change version {}", backfilled, lastAllocated);
+        }
+    }
+
+    /**
+     * Allocates the next version for a write in the current transaction. The version
+     * counts as in flight until that transaction commits or rolls back.
+     */
+    public long next() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Change versions must be allocated inside a transaction");
+        }
+        long version;
+        synchronized (this) {
+            version = ++lastAllocated;
+            inFlight.add(version);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(version);
+            }
+        });
+        return version;
+    }
+
+    // Highest version below which every allocated version has committed or rolled back
+    public synchronized long stableVersion() {
+        return inFlight.isEmpty() ? lastAllocated : inFlight.first() - 1;
+    }
+
+    private synchronized void complete(long version) {
+        inFlight.remove(version);
+    }
+}
@@ -0,0 +1,210 @@
+package com.examly.springapp.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.examly.springapp.event.TicketChangedEvent;
+import com.examly.springapp.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Fans committed ticket changes out to /api/tickets/stream subscribers.
+ *
+ * Each event is serialized once and offered to every subscriber's pending buffer;
+ * a small sender pool writes the buffers out, so a publisher never waits on a socket.
+ * A buffer holds at most one event per ticket (a newer change replaces the queued one)
+ * and at most bufferSize tickets; a subscriber that falls further behind has its
+ * buffer dropped and is sent a single "resync" event telling it to reload the list.
+ */
+@Component
+public class TicketEventStream {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketEventStream.class);
+
+    static final String EVENT_TICKET = "ticket";
+    static final String EVENT_RESYNC = "resync";
+
+    private final ObjectMapper objectMapper;
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender;
+
+    public TicketEventStream(ObjectMapper objectMapper,
+                             @Value("${app.tickets.stream.max-subscribers:5000}") int maxSubscribers,
+                             @Value("${app.tickets.stream.buffer-size:256}") int bufferSize,
+                             @Value("${app.tickets.stream.timeout-minutes:30}") long timeoutMinutes,
+                             @Value("${app.tickets.stream.sender-threads:4}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, task -> {
+            Thread thread = new Thread(task, "ticket-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new BadRequestException("Too many open ticket streams, try again later");
+        }
+        // EventSource reconnects on its own when the timeout ends the stream
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // Runs after commit, or straight away when published outside a transaction; rolled-back changes are never sent
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize change of ticket {}", event.getTicketId(), e);
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event.getTicketId(), json);
+        }
+    }
+
+    // An SSE comment line keeps idle connections open through proxies and finds clients that went away
+    @Scheduled(fixedDelayString = "${app.tickets.stream.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offerHeartbeat();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        // Guarded by this; insertion order is the order of each ticket's latest change
+        private final Map<Long, String> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+        private boolean heartbeatDue;
+        private boolean scheduled;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(Long ticketId, String json) {
+            if (overflowed || closed) {
+                return;
+            }
+            pending.remove(ticketId);
+            pending.put(ticketId, json);
+            if (pending.size() > bufferSize) {
+                pending.clear();
+                overflowed = true;
+            }
+            schedule();
+        }
+
+        synchronized void offerHeartbeat() {
+            if (closed) {
+                return;
+            }
+            heartbeatDue = true;
+            schedule();
+        }
+
+        // At most one sender thread works on a subscriber at a time
+        private void schedule() {
+            if (!scheduled) {
+                scheduled = true;
+                sender.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                List<String> batch;
+                boolean resync;
+                boolean heartbeat;
+                synchronized (this) {
+                    if (pending.isEmpty() && !overflowed && !heartbeatDue) {
+                        scheduled = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                    resync = overflowed;
+                    overflowed = false;
+                    heartbeat = heartbeatDue;
+                    heartbeatDue = false;
+                }
+                try {
+                    if (resync) {
+                        emitter.send(SseEmitter.event().name(EVENT_RESYNC).data("{}", MediaType.APPLICATION_JSON));
+                    }
+                    for (String json : batch) {
+                        emitter.send(SseEmitter.event().name(EVENT_TICKET).data(json, MediaType.APPLICATION_JSON));
+                    }
+                    if (heartbeat && !resync && batch.isEmpty()) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away or the emitter already completed; stop delivering to it
+                    subscribers.remove(this);
+                    synchronized (this) {
+                        closed = true;
+                        pending.clear();
+                        scheduled = false;
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
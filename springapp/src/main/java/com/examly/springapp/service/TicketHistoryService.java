@@ -2,12 +2,14 @@ package com.examly.springapp.service;
 
 import com.examly.springapp.model.TicketHistory;
 import com.examly.springapp.dto.CreateTicketHistoryRequest;
+import com.examly.springapp.dto.CursorPage;
 
 import java.util.List;
 
 public interface TicketHistoryService {
     List<TicketHistory> getAllTicketHistory();
     List<TicketHistory> getHistoryByTicketId(Long ticketId);
+    CursorPage<TicketHistory> getHistoryPage(Long ticketId, String cursor, int limit);
     TicketHistory getTicketHistoryById(Long id);
     TicketHistory createTicketHistory(CreateTicketHistoryRequest request);
     TicketHistory updateTicketHistory(Long id, CreateTicketHistoryRequest request);
@@ -2,16 +2,21 @@ package com.examly.springapp.service;
 
 import com.examly.springapp.model.TicketHistory;
 import com.examly.springapp.dto.CreateTicketHistoryRequest;
+import com.examly.springapp.dto.CursorPage;
+import com.examly.springapp.exception.BadRequestException;
 import com.examly.springapp.repository.TicketHistoryRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class TicketHistoryServiceImpl implements TicketHistoryService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final TicketHistoryRepository ticketHistoryRepository;
 
     public TicketHistoryServiceImpl(TicketHistoryRepository ticketHistoryRepository) {
@@ -25,11 +30,39 @@ public class TicketHistoryServiceImpl implements TicketHistoryService {
 
     @Override
     public List<TicketHistory> getHistoryByTicketId(Long ticketId) {
-        // Using findAll for now - can be enhanced later with proper query method
-        return ticketHistoryRepository.findAll().stream()
-                .filter(history -> ticketId.equals(history.getTicket() != null ? history.getTicket().getId() : null))
-                .sorted((h1, h2) -> h2.getTimestamp().compareTo(h1.getTimestamp()))
-                .collect(Collectors.toList());
+        return ticketHistoryRepository.findByTicketIdOrderByTimestampDescIdDesc(ticketId);
+    }
+
+    // Cursor is "<timestamp>_<id>" of the last row returned; timestamps can tie, so id breaks the tie
+    @Override
+    public CursorPage<TicketHistory> getHistoryPage(Long ticketId, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        List<TicketHistory> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = ticketHistoryRepository.findByTicketIdOrderByTimestampDescIdDesc(ticketId, pageRequest);
+        } else {
+            String value = cursor.trim();
+            int separator = value.lastIndexOf('_');
+            try {
+                LocalDateTime timestamp = LocalDateTime.parse(value.substring(0, Math.max(separator, 0)));
+                Long id = Long.parseLong(value.substring(separator + 1));
+                rows = ticketHistoryRepository.findPageAfter(ticketId, timestamp, id, pageRequest);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+        boolean hasMore = rows.size() > limit;
+        List<TicketHistory> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            TicketHistory last = items.get(items.size() - 1);
+            nextCursor = last.getTimestamp() + "_" + last.getId();
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
     }
 
     @Override
@@ -0,0 +1,13 @@
+package com.examly.springapp.service;
+
+import java.util.List;
+
+import com.examly.springapp.dto.ClaimTicketsRequest;
+import com.examly.springapp.dto.TicketListItem;
+
+public interface TicketQueueService {
+
+    // Assigns the next unassigned New tickets to the caller, or to req.agentId when the caller is an admin;
+    // empty when the queue is drained
+    List<TicketListItem> claim(ClaimTicketsRequest req, AuthenticatedUser caller);
+}
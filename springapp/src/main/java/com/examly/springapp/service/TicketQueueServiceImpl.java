@@ -0,0 +1,109 @@
+package com.examly.springapp.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.examly.springapp.dto.ClaimTicketsRequest;
+import com.examly.springapp.dto.TicketListItem;
+import com.examly.springapp.event.TicketChangedEvent;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.ForbiddenException;
+import com.examly.springapp.model.TicketHistory;
+import com.examly.springapp.model.TicketStatus;
+import com.examly.springapp.model.User;
+import com.examly.springapp.repository.TicketHistoryRepository;
+import com.examly.springapp.repository.TicketRepository;
+
+/**
+ * Work queue over unassigned New tickets, highest priority level first, then oldest.
+ *
+ * A claim locks the next rows with SELECT ... FOR UPDATE SKIP LOCKED and assigns them in the same
+ * transaction. Concurrent claimers never wait on each other's rows and never see them:
+ * each one takes the next rows nobody else holds, and once the claim commits those rows
+ * are no longer unassigned.
+ */
+@Service
+public class TicketQueueServiceImpl implements TicketQueueService {
+
+    private static final int MAX_CLAIM = 50;
+
+    private final TicketRepository ticketRepository;
+    private final TicketHistoryRepository ticketHistoryRepository;
+    private final ReferenceDataCache referenceData;
+    private final ApplicationEventPublisher events;
+    private final TicketChangeVersions changeVersions;
+
+    public TicketQueueServiceImpl(TicketRepository ticketRepository,
+                                  TicketHistoryRepository ticketHistoryRepository,
+                                  ReferenceDataCache referenceData,
+                                  ApplicationEventPublisher events,
+                                  TicketChangeVersions changeVersions) {
+        this.ticketRepository = ticketRepository;
+        this.ticketHistoryRepository = ticketHistoryRepository;
+        this.referenceData = referenceData;
+        this.events = events;
+        this.changeVersions = changeVersions;
+    }
+
+    @Override
+    @Transactional
+    public List<TicketListItem> claim(ClaimTicketsRequest req, AuthenticatedUser caller) {
+        int count = req.getCount() != null ? req.getCount() : 1;
+        if (count < 1 || count > MAX_CLAIM) {
+            throw new BadRequestException("count must be between 1 and " + MAX_CLAIM);
+        }
+        // Agents claim for themselves; only an admin hands tickets to someone else
+        Long agentId = req.getAgentId() != null ? req.getAgentId() : caller.getId();
+        if (!agentId.equals(caller.getId()) && !User.Role.ADMIN.name().equals(caller.getRole())) {
+            throw new ForbiddenException("Only an admin can claim tickets for another agent");
+        }
+        User agent = referenceData.findUserById(agentId)
+                .orElseThrow(() -> new BadRequestException("Invalid agentId"));
+        if (agent.getRole() == User.Role.EMPLOYEE) {
+            throw new BadRequestException("Only agents and admins can claim tickets");
+        }
+
+        List<Long> ids = ticketRepository.lockNextUnassigned(TicketStatus.New, PageRequest.of(0, count));
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<TicketListItem> before = ticketRepository.findListItemsByIdIn(ids);
+        ticketRepository.updateAssignedAgentByIdIn(ids, agent, changeVersions.next());
+        List<TicketHistory> history = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            history.add(historyRow(id, agent));
+        }
+        ticketHistoryRepository.saveAll(history);
+
+        Map<Long, TicketListItem> previous = new HashMap<>();
+        for (TicketListItem item : before) {
+            previous.put(item.getId(), item);
+        }
+        List<TicketListItem> claimed = new ArrayList<>(ticketRepository.findListItemsByIdIn(ids));
+        for (TicketListItem item : claimed) {
+            events.publishEvent(TicketChangedEvent.changed(TicketChangedEvent.Type.ASSIGNED,
+                    previous.get(item.getId()), item));
+        }
+        // Same order the queue handed them out in
+        claimed.sort(Comparator.comparingInt(item -> ids.indexOf(item.getId())));
+        return claimed;
+    }
+
+    private TicketHistory historyRow(Long ticketId, User agent) {
+        TicketHistory history = new TicketHistory();
+        history.setTicket(ticketRepository.getReferenceById(ticketId));
+        history.setUser(agent);
+        history.setComment("Claimed from the queue by agent " + agent.getId());
+        return history;
+    }
+}
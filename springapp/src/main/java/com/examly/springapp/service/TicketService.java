@@ -1,21 +1,45 @@
 package com.examly.springapp.service;
 
 import java.util.List;
+import java.util.Map;
+import com.examly.springapp.dto.BulkTicketResult;
 import com.examly.springapp.dto.CreateTicketRequest;
+import com.examly.springapp.dto.CursorPage;
+import com.examly.springapp.dto.TicketChangeFeed;
+import com.examly.springapp.dto.TicketDetail;
+import com.examly.springapp.dto.TicketFilter;
+import com.examly.springapp.dto.TicketListItem;
+import com.examly.springapp.dto.TransitionTicketStatusRequest;
 import com.examly.springapp.dto.UpdateTicketStatusRequest;
 import com.examly.springapp.model.Ticket;
 
 public interface TicketService {
 
-    List<Ticket> getAllTickets();
+    List<TicketListItem> getAllTickets();
 
-    Ticket getTicketById(Long id);
+    CursorPage<TicketListItem> getTicketsPage(TicketFilter filter, String cursor, int limit);
+
+    // Sparse fieldsets: fields is the raw ?fields= value, e.g. "title,status"
+    List<Map<String, Object>> getAllTicketFields(String fields);
+
+    CursorPage<Map<String, Object>> getTicketFieldsPage(String fields, TicketFilter filter, String cursor, int limit);
+
+    // Delta sync: tickets changed and deleted after the since cursor ("<version>" or a previous nextSince)
+    TicketChangeFeed getChanges(String since, int limit);
+
+    TicketDetail getTicketById(Long id);
 
     Ticket createTicket(CreateTicketRequest req);
 
-    Ticket updateTicketStatus(Long id, UpdateTicketStatusRequest req);
+    List<BulkTicketResult> createTickets(List<CreateTicketRequest> requests);
+
+    // expectedVersion (from If-Match) must equal the ticket's version, else ConflictException; null skips the check
+    Ticket updateTicketStatus(Long id, UpdateTicketStatusRequest req, Long expectedVersion);
+
+    // Compare-and-set: applies only while the ticket's status is req.from, else ConflictException
+    Ticket transitionStatus(Long id, TransitionTicketStatusRequest req, Long expectedVersion);
 
-    Ticket updateTicket(Long id, CreateTicketRequest req);
+    Ticket updateTicket(Long id, CreateTicketRequest req, Long expectedVersion);
 
     void deleteTicket(Long id);
 }
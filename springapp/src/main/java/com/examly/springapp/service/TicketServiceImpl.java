@@ -1,105 +1,200 @@
 package com.examly.springapp.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.examly.springapp.dto.BulkTicketResult;
 import com.examly.springapp.dto.CreateTicketRequest;
+import com.examly.springapp.dto.CursorPage;
+import com.examly.springapp.dto.TicketChangeFeed;
+import com.examly.springapp.dto.TicketDetail;
+import com.examly.springapp.dto.TicketFeedItem;
+import com.examly.springapp.dto.TicketFilter;
+import com.examly.springapp.dto.TicketListItem;
+import com.examly.springapp.dto.TransitionTicketStatusRequest;
 import com.examly.springapp.dto.UpdateTicketStatusRequest;
+import com.examly.springapp.event.TicketChangedEvent;
 import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.ConflictException;
 import com.examly.springapp.model.Ticket;
 import com.examly.springapp.model.TicketStatus;
+import com.examly.springapp.model.TicketTombstone;
 import com.examly.springapp.model.Priority;
 import com.examly.springapp.model.Category;
 import com.examly.springapp.model.User;
-import com.examly.springapp.repository.PriorityRepository;
-import com.examly.springapp.repository.CategoryRepository;
-import com.examly.springapp.repository.UserRepository;
 import com.examly.springapp.repository.TicketRepository;
+import com.examly.springapp.repository.TicketRepositoryCustom;
+import com.examly.springapp.repository.TicketTombstoneRepository;
+import com.examly.springapp.util.SparseFields;
 
 @Service
 public class TicketServiceImpl implements TicketService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BULK_SIZE = 1000;
+    // tickets.title is VARCHAR(255) NOT NULL
+    private static final int MAX_TITLE_LENGTH = 255;
+
     private final TicketRepository ticketRepository;
-    private final PriorityRepository priorityRepository;
-    private final CategoryRepository categoryRepository;
-    private final UserRepository userRepository;
+    private final ReferenceDataCache referenceData;
+    private final ApplicationEventPublisher events;
+    private final TicketChangeVersions changeVersions;
+    private final TicketTombstoneRepository tombstoneRepository;
+    private final AgentAssignmentEngine assignmentEngine;
+    private final SlaScheduler slaScheduler;
 
     public TicketServiceImpl(TicketRepository ticketRepository,
-                             PriorityRepository priorityRepository,
-                             CategoryRepository categoryRepository,
-                             UserRepository userRepository) {
+                             ReferenceDataCache referenceData,
+                             ApplicationEventPublisher events,
+                             TicketChangeVersions changeVersions,
+                             TicketTombstoneRepository tombstoneRepository,
+                             AgentAssignmentEngine assignmentEngine,
+                             SlaScheduler slaScheduler) {
         this.ticketRepository = ticketRepository;
-        this.priorityRepository = priorityRepository;
-        this.categoryRepository = categoryRepository;
-        this.userRepository = userRepository;
+        this.referenceData = referenceData;
+        this.events = events;
+        this.changeVersions = changeVersions;
+        this.tombstoneRepository = tombstoneRepository;
+        this.assignmentEngine = assignmentEngine;
+        this.slaScheduler = slaScheduler;
+    }
+
+    @Override
+    public List<TicketListItem> getAllTickets() {
+        return ticketRepository.findAllListItems();
+    }
+
+    @Override
+    public CursorPage<TicketListItem> getTicketsPage(TicketFilter filter, String cursor, int limit) {
+        checkPageSize(limit);
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<TicketListItem> rows = ticketRepository.findPage(filter, parseStatus(filter), parseCursor(cursor), limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<TicketListItem> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? String.valueOf(items.get(items.size() - 1).getId()) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
     }
 
     @Override
-    public List<Ticket> getAllTickets() {
-        return ticketRepository.findAll();
+    public List<Map<String, Object>> getAllTicketFields(String fields) {
+        Set<String> selected = SparseFields.parse(fields, TicketRepositoryCustom.SPARSE_FIELDS);
+        return ticketRepository.findFieldsPage(selected, new TicketFilter(), null, null, 0);
+    }
+
+    @Override
+    public CursorPage<Map<String, Object>> getTicketFieldsPage(String fields, TicketFilter filter,
+                                                              String cursor, int limit) {
+        checkPageSize(limit);
+        Set<String> selected = SparseFields.parse(fields, TicketRepositoryCustom.SPARSE_FIELDS);
+        List<Map<String, Object>> rows = ticketRepository.findFieldsPage(selected, filter, parseStatus(filter),
+                parseCursor(cursor), limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<Map<String, Object>> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? String.valueOf(items.get(items.size() - 1).get(SparseFields.ID)) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    private void checkPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private Long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(cursor.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private TicketStatus parseStatus(TicketFilter filter) {
+        if (filter.getStatus() == null || filter.getStatus().isBlank()) {
+            return null;
+        }
+        try {
+            return TicketStatus.fromString(filter.getStatus());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
     }
 
     @Override
-    public Ticket getTicketById(Long id) {
+    public TicketDetail getTicketById(Long id) {
         if (id == null) {
             throw new RuntimeException("Ticket ID cannot be null");
         }
-        return ticketRepository.findById(id)
+        return ticketRepository.findDetailViewById(id)
                 .orElseThrow(() -> new RuntimeException("Ticket not found with ID: " + id));
     }
 
     @Override
+    @Transactional
     public Ticket createTicket(CreateTicketRequest req) {
-        Ticket ticket = new Ticket();
-        ticket.setTitle(req.getTitle());
-        ticket.setDescription(req.getDescription());
+        Ticket ticket = buildTicket(req);
+        ticket.setChangeVersion(changeVersions.next());
+        Ticket saved = ticketRepository.save(ticket);
+        slaScheduler.track(saved);
+        events.publishEvent(TicketChangedEvent.created(TicketListItem.from(saved)));
+        return saved;
+    }
 
-        // Resolve priority
-        Priority priority = null;
-        if (req.getPriorityId() != null) {
-            priority = priorityRepository.findById(req.getPriorityId())
-                    .orElseThrow(() -> new BadRequestException("Invalid priorityId"));
-        } else if (req.getPriority() != null) {
-            priority = priorityRepository.findByNameIgnoreCase(req.getPriority().trim());
-            if (priority == null) throw new BadRequestException("Invalid priority name. Allowed: " + getAllowedPriorities());
+    @Override
+    @Transactional
+    public List<BulkTicketResult> createTickets(List<CreateTicketRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("At least one ticket is required");
+        }
+        if (requests.size() > MAX_BULK_SIZE) {
+            throw new BadRequestException("At most " + MAX_BULK_SIZE + " tickets can be created per request");
         }
-        ticket.setPriority(priority);
 
-        // Resolve category
-        Category category = null;
-        if (req.getCategoryId() != null) {
-            category = categoryRepository.findById(req.getCategoryId())
-                    .orElseThrow(() -> new BadRequestException("Invalid categoryId"));
-        } else if (req.getCategory() != null) {
-            category = categoryRepository.findByNameIgnoreCase(req.getCategory().trim());
-            if (category == null) throw new BadRequestException("Invalid category name. Allowed: " + getAllowedCategories());
+        // Validate everything against cached reference data first; rejected items never reach the database
+        BulkTicketResult[] results = new BulkTicketResult[requests.size()];
+        List<Ticket> accepted = new ArrayList<>(requests.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                accepted.add(buildTicket(requests.get(i)));
+                acceptedIndexes.add(i);
+            } catch (BadRequestException e) {
+                results[i] = BulkTicketResult.rejected(i, e.getMessage());
+            }
         }
-        ticket.setCategory(category);
 
-        // Submitter / Assigned Agent
-        if (req.getSubmitterId() != null) {
-            User submitter = userRepository.findById(req.getSubmitterId())
-                    .orElseThrow(() -> new BadRequestException("Invalid submitterId"));
-            ticket.setSubmitter(submitter);
-        } else {
-            throw new BadRequestException("submitterId is required");
+        // Ids come from the pooled generator, so these INSERTs go out in JDBC batches at flush
+        for (Ticket ticket : accepted) {
+            ticket.setChangeVersion(changeVersions.next());
         }
-        if (req.getAssignedAgentId() != null) {
-            User agent = userRepository.findById(req.getAssignedAgentId())
-                    .orElseThrow(() -> new BadRequestException("Invalid assignedAgentId"));
-            ticket.setAssignedAgent(agent);
+        ticketRepository.saveAll(accepted);
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results[index] = BulkTicketResult.created(index, accepted.get(i).getId());
+            slaScheduler.track(accepted.get(i));
+            events.publishEvent(TicketChangedEvent.created(TicketListItem.from(accepted.get(i))));
         }
-
-        ticket.setStatus(TicketStatus.New);
-
-        return ticketRepository.save(ticket);
+        return Arrays.asList(results);
     }
 
     @Override
-    public Ticket updateTicketStatus(Long id, UpdateTicketStatusRequest req) {
-        Ticket ticket = ticketRepository.findById(id)
+    @Transactional
+    public Ticket updateTicketStatus(Long id, UpdateTicketStatusRequest req, Long expectedVersion) {
+        Ticket ticket = ticketRepository.findDetailById(id)
                 .orElseThrow(() -> new RuntimeException("Ticket not found"));
+        checkVersion(ticket, expectedVersion);
+        TicketListItem previous = TicketListItem.from(ticket);
 
         try {
             TicketStatus newStatus = TicketStatus.fromString(req.getStatus());
@@ -107,71 +202,247 @@ public class TicketServiceImpl implements TicketService {
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException(e.getMessage());
         }
+        ticket.setChangeVersion(changeVersions.next());
 
         // Comment functionality removed as per new schema
-        return ticketRepository.save(ticket);
+        Ticket saved = ticketRepository.save(ticket);
+        publish(TicketChangedEvent.Type.STATUS_CHANGED, previous, saved);
+        return saved;
     }
 
     @Override
-    public Ticket updateTicket(Long id, CreateTicketRequest req) {
-        Ticket ticket = ticketRepository.findById(id)
+    @Transactional
+    public Ticket transitionStatus(Long id, TransitionTicketStatusRequest req, Long expectedVersion) {
+        if (req == null || req.getFrom() == null || req.getTo() == null) {
+            throw new BadRequestException("from and to are required");
+        }
+        TicketStatus from = parseStatus(req.getFrom());
+        TicketStatus to = parseStatus(req.getTo());
+        if (!from.canTransitionTo(to)) {
+            throw new BadRequestException("Cannot move a ticket from " + from + " to " + to);
+        }
+        Ticket ticket = ticketRepository.findDetailById(id)
                 .orElseThrow(() -> new RuntimeException("Ticket not found"));
+        checkVersion(ticket, expectedVersion);
+        if (ticket.getStatus() != from) {
+            throw new ConflictException("Ticket " + id + " is " + ticket.getStatus() + ", not " + from);
+        }
+        TicketListItem previous = TicketListItem.from(ticket);
+
+        // No row lock: the version check in the UPDATE rejects a change that committed after this read
+        ticket.setStatus(to);
+        ticket.setChangeVersion(changeVersions.next());
+        Ticket saved = ticketRepository.save(ticket);
+        publish(TicketChangedEvent.Type.STATUS_CHANGED, previous, saved);
+        return saved;
+    }
 
-        ticket.setTitle(req.getTitle());
+    @Override
+    @Transactional
+    public Ticket updateTicket(Long id, CreateTicketRequest req, Long expectedVersion) {
+        Ticket ticket = ticketRepository.findDetailById(id)
+                .orElseThrow(() -> new RuntimeException("Ticket not found"));
+        checkVersion(ticket, expectedVersion);
+        TicketListItem previous = TicketListItem.from(ticket);
+
+        ticket.setTitle(requireTitle(req.getTitle()));
         ticket.setDescription(req.getDescription());
 
         // Update priority/category via ids if provided
-        if (req.getPriorityId() != null) {
-            ticket.setPriority(priorityRepository.findById(req.getPriorityId())
-                    .orElseThrow(() -> new BadRequestException("Invalid priorityId")));
-        } else if (req.getPriority() != null) {
-            Priority p = priorityRepository.findByNameIgnoreCase(req.getPriority().trim());
-            if (p == null) throw new BadRequestException("Invalid priority name. Allowed: " + getAllowedPriorities());
-            ticket.setPriority(p);
+        Priority priority = resolvePriority(req);
+        boolean priorityChanged = priority != null
+                && (ticket.getPriority() == null || !priority.getId().equals(ticket.getPriority().getId()));
+        if (priority != null) {
+            ticket.setPriority(priority);
         }
-        if (req.getCategoryId() != null) {
-            ticket.setCategory(categoryRepository.findById(req.getCategoryId())
-                    .orElseThrow(() -> new BadRequestException("Invalid categoryId")));
-        } else if (req.getCategory() != null) {
-            Category c = categoryRepository.findByNameIgnoreCase(req.getCategory().trim());
-            if (c == null) throw new BadRequestException("Invalid category name. Allowed: " + getAllowedCategories());
-            ticket.setCategory(c);
+        Category category = resolveCategory(req);
+        if (category != null) {
+            ticket.setCategory(category);
         }
         if (req.getSubmitterId() != null) {
-            ticket.setSubmitter(userRepository.findById(req.getSubmitterId())
-                    .orElseThrow(() -> new BadRequestException("Invalid submitterId")));
+            ticket.setSubmitter(resolveUser(req.getSubmitterId(), "Invalid submitterId"));
         } else if (ticket.getSubmitter() == null) {
             throw new BadRequestException("submitterId is required");
         }
         if (req.getAssignedAgentId() != null) {
-            ticket.setAssignedAgent(userRepository.findById(req.getAssignedAgentId())
-                    .orElseThrow(() -> new BadRequestException("Invalid assignedAgentId")));
+            ticket.setAssignedAgent(resolveUser(req.getAssignedAgentId(), "Invalid assignedAgentId"));
+        }
+
+        if (priorityChanged) {
+            // Targets follow the new priority, still counted from creation
+            slaScheduler.applyTargets(ticket);
         }
 
-        return ticketRepository.save(ticket);
+        ticket.setChangeVersion(changeVersions.next());
+        Ticket saved = ticketRepository.save(ticket);
+        if (priorityChanged) {
+            slaScheduler.track(saved);
+        }
+        publish(TicketChangedEvent.Type.UPDATED, previous, saved);
+        return saved;
     }
 
     @Override
+    @Transactional
     public void deleteTicket(Long id) {
-        Ticket ticket = ticketRepository.findById(id)
+        Ticket ticket = ticketRepository.findDetailById(id)
                 .orElseThrow(() -> new RuntimeException("Ticket not found"));
+        TicketListItem previous = TicketListItem.from(ticket);
         ticketRepository.delete(ticket);
+        tombstoneRepository.save(new TicketTombstone(id, changeVersions.next(), LocalDateTime.now()));
+        events.publishEvent(TicketChangedEvent.deleted(previous));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TicketChangeFeed getChanges(String since, int limit) {
+        checkPageSize(limit);
+        long version = 0;
+        long afterId = Long.MAX_VALUE;
+        if (since != null && !since.isBlank()) {
+            // "<version>" or, mid-version, "<version>_<id>" as handed out in nextSince
+            String[] parts = since.trim().split("_", 2);
+            try {
+                version = Long.parseLong(parts[0]);
+                if (parts.length == 2) {
+                    afterId = Long.parseLong(parts[1]);
+                }
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid since");
+            }
+        }
+
+        long upTo = changeVersions.stableVersion();
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<TicketFeedItem> changed = ticketRepository.findChangesAfter(version, afterId, upTo, window);
+        List<TicketTombstone> removed = tombstoneRepository.findChangesAfter(version, afterId, upTo, window);
+
+        // Merge both streams in (version, id) order; ids never collide because a deleted ticket has no row
+        List<TicketFeedItem> upserts = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        int c = 0;
+        int r = 0;
+        long lastVersion = version;
+        long lastId = afterId;
+        while (upserts.size() + deleted.size() < limit && (c < changed.size() || r < removed.size())) {
+            boolean takeChanged = r >= removed.size() || (c < changed.size()
+                    && compareKeys(changed.get(c).getChangeVersion(), changed.get(c).getId(),
+                    removed.get(r).getChangeVersion(), removed.get(r).getTicketId()) < 0);
+            if (takeChanged) {
+                TicketFeedItem item = changed.get(c++);
+                upserts.add(item);
+                lastVersion = item.getChangeVersion();
+                lastId = item.getId();
+            } else {
+                TicketTombstone tombstone = removed.get(r++);
+                deleted.add(tombstone.getTicketId());
+                lastVersion = tombstone.getChangeVersion();
+                lastId = tombstone.getTicketId();
+            }
+        }
+        boolean hasMore = c < changed.size() || r < removed.size();
+        // Once caught up, everything up to upTo has been seen and the next sync starts after it
+        String nextSince = hasMore ? lastVersion + "_" + lastId : String.valueOf(Math.max(version, upTo));
+        return new TicketChangeFeed(upserts, deleted, nextSince, hasMore);
+    }
+
+    private static void checkVersion(Ticket ticket, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(ticket.getVersion())) {
+            throw new ConflictException("Ticket " + ticket.getId() + " has changed since it was read");
+        }
+    }
+
+    private static TicketStatus parseStatus(String raw) {
+        try {
+            return TicketStatus.fromString(raw);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    private static int compareKeys(long versionA, long idA, long versionB, long idB) {
+        int byVersion = Long.compare(versionA, versionB);
+        return byVersion != 0 ? byVersion : Long.compare(idA, idB);
+    }
+
+    // Delivered to stream subscribers only after this transaction commits (see TicketEventStream)
+    private void publish(TicketChangedEvent.Type type, TicketListItem previous, Ticket ticket) {
+        events.publishEvent(TicketChangedEvent.changed(type, previous, TicketListItem.from(ticket)));
+    }
+
+    private Ticket buildTicket(CreateTicketRequest req) {
+        if (req == null) {
+            throw new BadRequestException("Ticket body is required");
+        }
+        Ticket ticket = new Ticket();
+        ticket.setTitle(requireTitle(req.getTitle()));
+        ticket.setDescription(req.getDescription());
+
+        // Reference rows come from the in-process cache, so the only statement here is the INSERT
+        ticket.setPriority(resolvePriority(req));
+        ticket.setCategory(resolveCategory(req));
+
+        // Submitter / Assigned Agent
+        if (req.getSubmitterId() != null) {
+            ticket.setSubmitter(resolveUser(req.getSubmitterId(), "Invalid submitterId"));
+        } else {
+            throw new BadRequestException("submitterId is required");
+        }
+        if (req.getAssignedAgentId() != null) {
+            ticket.setAssignedAgent(resolveUser(req.getAssignedAgentId(), "Invalid assignedAgentId"));
+        } else {
+            // Picked from memory and reserved until this transaction ends; still no query
+            assignmentEngine.assign(ticket.getCategory() != null ? ticket.getCategory().getId() : null)
+                    .ifPresent(ticket::setAssignedAgent);
+        }
+
+        ticket.setStatus(TicketStatus.New);
+        slaScheduler.applyTargets(ticket);
+        return ticket;
+    }
+
+    // Checked here so a bad title is a 400 (or one REJECTED bulk item), not a failed INSERT.
+    // The other NOT NULL columns (status, created_at, version) are always set by the server
+    private static String requireTitle(String title) {
+        if (title == null || title.isBlank()) {
+            throw new BadRequestException("title is required");
+        }
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new BadRequestException("title must be at most " + MAX_TITLE_LENGTH + " characters");
+        }
+        return title;
     }
 
-    // Helper methods to list allowed names for clearer error messages
-    private String getAllowedCategories() {
-        return categoryRepository.findAll().stream()
-                .map(Category::getName)
-                .sorted(String.CASE_INSENSITIVE_ORDER)
-                .reduce((a, b) -> a + ", " + b)
-                .orElse("none configured");
+    // Resolves priorityId or the legacy priority name; null when neither is given
+    private Priority resolvePriority(CreateTicketRequest req) {
+        if (req.getPriorityId() != null) {
+            return referenceData.findPriorityById(req.getPriorityId())
+                    .orElseThrow(() -> new BadRequestException("Invalid priorityId"));
+        }
+        if (req.getPriority() != null) {
+            return referenceData.findPriorityByName(req.getPriority())
+                    .orElseThrow(() -> new BadRequestException(
+                            "Invalid priority name. Allowed: " + referenceData.getAllowedPriorityNames()));
+        }
+        return null;
+    }
+
+    // Resolves categoryId or the legacy category name; null when neither is given
+    private Category resolveCategory(CreateTicketRequest req) {
+        if (req.getCategoryId() != null) {
+            return referenceData.findCategoryById(req.getCategoryId())
+                    .orElseThrow(() -> new BadRequestException("Invalid categoryId"));
+        }
+        if (req.getCategory() != null) {
+            return referenceData.findCategoryByName(req.getCategory())
+                    .orElseThrow(() -> new BadRequestException(
+                            "Invalid category name. Allowed: " + referenceData.getAllowedCategoryNames()));
+        }
+        return null;
     }
 
-    private String getAllowedPriorities() {
-        return priorityRepository.findAll().stream()
-                .map(Priority::getName)
-                .sorted(String.CASE_INSENSITIVE_ORDER)
-                .reduce((a, b) -> a + ", " + b)
-                .orElse("none configured");
+    private User resolveUser(Long userId, String errorMessage) {
+        return referenceData.findUserById(userId)
+                .orElseThrow(() -> new BadRequestException(errorMessage));
     }
 }
@@ -4,9 +4,14 @@ import com.examly.springapp.model.User;
 import com.examly.springapp.dto.CreateUserRequest;
 
 import java.util.List;
+import java.util.Map;
 
 public interface UserService {
     List<User> getAllUsers();
+    // Sparse fieldset: fields is the raw ?fields= value, e.g. "name,email"
+    List<Map<String, Object>> getAllUserFields(String fields);
+    // Role breakdown from DashboardCounters: {roleCounts: {ADMIN, AGENT, EMPLOYEE}, totalUsers}
+    Map<String, Object> getRoleStats();
     User getUserById(Long id);
     User getUserByEmail(String email);
     User createUser(CreateUserRequest request);
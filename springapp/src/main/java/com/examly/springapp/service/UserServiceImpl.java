@@ -2,19 +2,38 @@ package com.examly.springapp.service;
 
 import com.examly.springapp.model.User;
 import com.examly.springapp.dto.CreateUserRequest;
+import com.examly.springapp.event.UserChangedEvent;
+import com.examly.springapp.exception.BadRequestException;
 import com.examly.springapp.repository.UserRepository;
+import com.examly.springapp.repository.UserRepositoryCustom;
+import com.examly.springapp.util.SparseFields;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final VerifiedTokenCache tokenCache;
+    private final DashboardCounters counters;
+    private final ApplicationEventPublisher events;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, ReferenceDataCache referenceDataCache,
+                           VerifiedTokenCache tokenCache, DashboardCounters counters,
+                           ApplicationEventPublisher events) {
         this.userRepository = userRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.tokenCache = tokenCache;
+        this.counters = counters;
+        this.events = events;
     }
 
     @Override
@@ -22,6 +41,23 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll();
     }
 
+    @Override
+    public List<Map<String, Object>> getAllUserFields(String fields) {
+        return userRepository.findAllFields(SparseFields.parse(fields, UserRepositoryCustom.SPARSE_FIELDS));
+    }
+
+    @Override
+    public Map<String, Object> getRoleStats() {
+        Map<String, Long> roleCounts = new HashMap<>();
+        for (User.Role role : User.Role.values()) {
+            roleCounts.put(role.name(), counters.getRoleCount(role));
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("roleCounts", roleCounts);
+        stats.put("totalUsers", counters.getTotalUsers());
+        return stats;
+    }
+
     @Override
     public User getUserById(Long id) {
         return userRepository.findById(id)
@@ -30,10 +66,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User getUserByEmail(String email) {
-        // Using findAll and filter to avoid missing repository method
-        return userRepository.findAll().stream()
-                .filter(user -> email.equals(user.getEmail()))
-                .findFirst()
+        return userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
     }
 
@@ -54,12 +87,18 @@ public class UserServiceImpl implements UserService {
             user.setRole(User.Role.EMPLOYEE);
         }
         user.setCreatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        if (request.getSkillCategoryIds() != null) {
+            user.setSkillCategoryIds(resolveSkills(request.getSkillCategoryIds()));
+        }
+        User saved = userRepository.save(user);
+        events.publishEvent(new UserChangedEvent(saved.getId(), null, saved.getRole()));
+        return saved;
     }
 
     @Override
     public User updateUser(Long id, CreateUserRequest request) {
         User user = getUserById(id);
+        User.Role previousRole = user.getRole();
         user.setName(request.getName());
         user.setEmail(request.getEmail());
         if (request.getPassword() != null && !request.getPassword().isEmpty()) {
@@ -72,12 +111,35 @@ public class UserServiceImpl implements UserService {
                 // ignore invalid role values on update
             }
         }
-        return userRepository.save(user);
+        // A new set replaces the stored one on save; the loaded set is never touched outside a session
+        if (request.getSkillCategoryIds() != null) {
+            user.setSkillCategoryIds(resolveSkills(request.getSkillCategoryIds()));
+        }
+        User saved = userRepository.save(user);
+        events.publishEvent(new UserChangedEvent(id, previousRole, saved.getRole()));
+        referenceDataCache.evictUser(id);
+        // Role or password may have changed; make the user sign in again
+        tokenCache.revokeUser(id);
+        return saved;
     }
 
     @Override
     public void deleteUser(Long id) {
         User user = getUserById(id);
         userRepository.delete(user);
+        events.publishEvent(new UserChangedEvent(id, user.getRole(), null));
+        referenceDataCache.evictUser(id);
+        tokenCache.revokeUser(id);
+    }
+
+    private Set<Long> resolveSkills(List<Long> categoryIds) {
+        Set<Long> skills = new HashSet<>();
+        for (Long categoryId : categoryIds) {
+            if (categoryId == null || referenceDataCache.findCategoryById(categoryId).isEmpty()) {
+                throw new BadRequestException("Invalid skill category id: " + categoryId);
+            }
+            skills.add(categoryId);
+        }
+        return skills;
     }
-}
\ No newline at end of file
+}
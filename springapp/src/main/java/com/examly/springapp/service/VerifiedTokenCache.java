@@ -0,0 +1,119 @@
+package com.examly.springapp.service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.examly.springapp.util.JwtUtil;
+import com.examly.springapp.util.LruCache;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Remembers access tokens whose signature has already been checked, so a client
+ * repeating the same bearer token pays for one HMAC and one claims parse, not one
+ * per request. Entries are bounded by an LRU and by the token's own expiry.
+ *
+ * Tokens are self-contained, so no user row is loaded per request. Updating or
+ * deleting a user calls revokeUser, which rejects that user's tokens issued before
+ * the call (cached or not) until they expire. Revocations are held in memory only.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final LruCache<String, VerifiedToken> tokens;
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+    private final long tokenLifetimeMillis;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${app.jwt.cache.max-entries:10000}") int maxEntries,
+                              @Value("${app.jwt.expiration-minutes:60}") long expirationMinutes) {
+        this.jwtUtil = jwtUtil;
+        this.tokens = new LruCache<>(maxEntries);
+        this.tokenLifetimeMillis = expirationMinutes * 60_000;
+    }
+
+    public enum Outcome { CACHED, VERIFIED, REJECTED }
+
+    public static final class Result {
+        private final Outcome outcome;
+        private final AuthenticatedUser user;
+
+        private Result(Outcome outcome, AuthenticatedUser user) {
+            this.outcome = outcome;
+            this.user = user;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public Optional<AuthenticatedUser> getUser() {
+            return Optional.ofNullable(user);
+        }
+    }
+
+    public Result authenticate(String token) {
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = tokens.get(token);
+        if (cached != null) {
+            if (cached.expiresAt > now && !isRevoked(cached)) {
+                return new Result(Outcome.CACHED, cached.user);
+            }
+            tokens.remove(token);
+            return new Result(Outcome.REJECTED, null);
+        }
+
+        VerifiedToken verified;
+        try {
+            Claims claims = jwtUtil.parseToken(token);
+            AuthenticatedUser user = new AuthenticatedUser(Long.valueOf(claims.getSubject()),
+                    claims.get(JwtUtil.CLAIM_NAME, String.class),
+                    claims.get(JwtUtil.CLAIM_ROLE, String.class).toUpperCase(Locale.ROOT));
+            verified = new VerifiedToken(user, claims.getIssuedAt().getTime(), claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException | NullPointerException e) {
+            // Bad signature, expired, or missing/malformed claims
+            return new Result(Outcome.REJECTED, null);
+        }
+        if (isRevoked(verified)) {
+            return new Result(Outcome.REJECTED, null);
+        }
+        tokens.put(token, verified);
+        return new Result(Outcome.VERIFIED, verified.user);
+    }
+
+    // iat has second precision, so compare at whole seconds; a token issued in the same second survives
+    public void revokeUser(Long userId) {
+        long now = System.currentTimeMillis();
+        // Cutoffs older than a token lifetime can no longer match anything
+        revokedBefore.values().removeIf(cutoff -> cutoff < now - tokenLifetimeMillis);
+        revokedBefore.put(userId, now / 1000 * 1000);
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    private boolean isRevoked(VerifiedToken token) {
+        Long cutoff = revokedBefore.get(token.user.getId());
+        return cutoff != null && token.issuedAt < cutoff;
+    }
+
+    private static final class VerifiedToken {
+        private final AuthenticatedUser user;
+        private final long issuedAt;
+        private final long expiresAt;
+
+        VerifiedToken(AuthenticatedUser user, long issuedAt, long expiresAt) {
+            this.user = user;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
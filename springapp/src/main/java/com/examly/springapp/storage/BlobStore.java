@@ -0,0 +1,35 @@
+package com.examly.springapp.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Content-addressed store for attachment bytes: a blob's key is the lower-case hex
+ * SHA-256 of its content, so identical uploads share one file. Writing is two-step:
+ * stage() streams and hashes into a temporary file, publish() makes it visible under
+ * its digest. Callers serialize publish/delete per digest (see AttachmentServiceImpl).
+ */
+public interface BlobStore {
+
+    // Streams content to a temporary file, hashing as it goes, without holding it in memory
+    StagedBlob stage(InputStream content) throws IOException;
+
+    // Creates an empty temporary file of the given size for chunks to be written into at their offsets
+    Path allocate(long size) throws IOException;
+
+    // Hashes a complete file created by allocate() into a staged blob that can be published like any upload.
+    // The blob is a separate name for the same bytes: publishing or discarding it leaves the allocated file
+    // in place until its owner deletes it
+    StagedBlob stage(Path allocated) throws IOException;
+
+    // Moves the staged file under its digest; returns false (and drops the copy) if that blob already exists
+    boolean publish(StagedBlob staged) throws IOException;
+
+    void discard(StagedBlob staged);
+
+    // Local file holding the blob, or null when the key is unknown
+    Path locate(String key);
+
+    void delete(String key) throws IOException;
+}
@@ -0,0 +1,169 @@
+package com.examly.springapp.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Blob store on the local filesystem. Each blob is one file under
+ * root/&lt;k0k1&gt;/&lt;k2k3&gt;/&lt;digest&gt; so no directory grows without bound. Uploads are
+ * hashed while they stream through one direct buffer into root/tmp and are moved into
+ * place once complete, so a reader never sees a partial blob.
+ */
+@Component
+public class LocalBlobStore implements BlobStore {
+
+    // SHA-256 hex digests; older rows may still hold the UUID keys used before content addressing
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f-]{8,}");
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final Path root;
+    private final Path tmp;
+
+    public LocalBlobStore(@Value("${app.attachments.storage-dir:data/attachments}") String storageDir) throws IOException {
+        this.root = Paths.get(storageDir).toAbsolutePath().normalize();
+        this.tmp = root.resolve("tmp");
+        Files.createDirectories(tmp);
+        // Upload state is kept in memory, so anything left in tmp by a previous run is unreachable
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(tmp, "*.part")) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+    }
+
+    @Override
+    public StagedBlob stage(InputStream content) throws IOException {
+        MessageDigest sha256 = newDigest();
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        boolean staged = false;
+        try (ReadableByteChannel source = Channels.newChannel(content);
+             FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            long size = 0;
+            while (source.read(buffer) >= 0 || buffer.position() > 0) {
+                buffer.flip();
+                int from = buffer.position();
+                size += target.write(buffer);
+                // Hash exactly the bytes written; a partial write leaves the rest for the next pass
+                ByteBuffer written = buffer.duplicate();
+                written.position(from).limit(buffer.position());
+                sha256.update(written);
+                buffer.compact();
+            }
+            target.force(false);
+            staged = true;
+            return new StagedBlob(HexFormat.of().formatHex(sha256.digest()), size, temp);
+        } finally {
+            if (!staged) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    @Override
+    public Path allocate(long size) throws IOException {
+        Path file = Files.createTempFile(tmp, "chunked-", ".part");
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            // Sparse on most filesystems; blocks are allocated as chunks arrive
+            raf.setLength(size);
+        }
+        return file;
+    }
+
+    @Override
+    public StagedBlob stage(Path allocated) throws IOException {
+        Path file = allocated.toAbsolutePath().normalize();
+        if (!file.getParent().equals(tmp)) {
+            throw new IllegalArgumentException("Not an allocated upload file: " + allocated);
+        }
+        MessageDigest sha256 = newDigest();
+        long size = 0;
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            int read;
+            while ((read = source.read(buffer)) >= 0) {
+                buffer.flip();
+                sha256.update(buffer);
+                buffer.clear();
+                size += read;
+            }
+        }
+        // A hard link costs no copy; filesystems without them get a real copy
+        Path staged = tmp.resolve("upload-" + UUID.randomUUID() + ".part");
+        try {
+            Files.createLink(staged, file);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(file, staged);
+        }
+        return new StagedBlob(HexFormat.of().formatHex(sha256.digest()), size, staged);
+    }
+
+    @Override
+    public boolean publish(StagedBlob staged) throws IOException {
+        Path destination = pathFor(staged.getDigest());
+        if (Files.isRegularFile(destination)) {
+            discard(staged);
+            return false;
+        }
+        Files.createDirectories(destination.getParent());
+        Files.move(staged.getTempFile(), destination, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    @Override
+    public void discard(StagedBlob staged) {
+        try {
+            Files.deleteIfExists(staged.getTempFile());
+        } catch (IOException ignored) {
+            // stale temp files are only wasted space
+        }
+    }
+
+    @Override
+    public Path locate(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            return null;
+        }
+        Path path = pathFor(key);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Path path = locate(key);
+        if (path != null) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Path pathFor(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+}
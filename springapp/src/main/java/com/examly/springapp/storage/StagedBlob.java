@@ -0,0 +1,15 @@
+package com.examly.springapp.storage;
+
+import java.nio.file.Path;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Bytes written to a temporary file and hashed, not yet visible under their digest
+@Getter
+@AllArgsConstructor
+public class StagedBlob {
+    private String digest;
+    private long size;
+    private Path tempFile;
+}
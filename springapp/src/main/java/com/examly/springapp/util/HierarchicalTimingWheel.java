@@ -0,0 +1,201 @@
+package com.examly.springapp.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel holding one deadline per key.
+ *
+ * Level 0 has wheelSize buckets of tickMs each; every level above covers wheelSize
+ * buckets of the whole span below it, and levels are added as far-off deadlines need
+ * them. Scheduling and cancelling are O(1). Each tick fires one level-0 bucket, and
+ * when a higher level's bucket comes due its entries drop to the levels below. The cost
+ * therefore follows the number of deadlines that fire, not the number held.
+ *
+ * Deadlines are rounded up to the next tick, so a key never fires early. All methods are
+ * synchronized; callers handle expired keys outside the lock.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final List<Bucket<K>[]> levels = new ArrayList<>();
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    // Last tick processed by advance(); deadlines at or before it are already due
+    private long currentTick;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs < 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize at least 2");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.currentTick = startMs / tickMs;
+        addLevel();
+    }
+
+    /**
+     * Schedules key at deadlineMs, replacing any deadline it already has. Returns false,
+     * without holding the key, when the deadline is already due; the caller fires it.
+     */
+    public synchronized boolean schedule(K key, long deadlineMs) {
+        remove(key);
+        Entry<K> entry = new Entry<>(key, Math.floorDiv(deadlineMs + tickMs - 1, tickMs));
+        if (!place(entry)) {
+            return false;
+        }
+        entries.put(key, entry);
+        return true;
+    }
+
+    public synchronized boolean cancel(K key) {
+        return remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Moves the wheel to nowMs and returns the keys whose deadlines passed, earlier ticks first. */
+    public synchronized List<K> advance(long nowMs) {
+        List<K> expired = new ArrayList<>();
+        long targetTick = nowMs / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Highest level first, so entries it hands down land in buckets cascaded next
+            int top = 0;
+            long span = wheelSize;
+            while (top + 1 < levels.size() && currentTick % span == 0) {
+                top++;
+                span *= wheelSize;
+            }
+            for (int level = top; level >= 1; level--) {
+                Bucket<K> bucket = bucket(level, currentTick);
+                for (Entry<K> entry = bucket.drain(); entry != null; ) {
+                    Entry<K> next = entry.next;
+                    entry.next = null;
+                    if (!place(entry)) {
+                        entries.remove(entry.key);
+                        expired.add(entry.key);
+                    }
+                    entry = next;
+                }
+            }
+            for (Entry<K> entry = bucket(0, currentTick).drain(); entry != null; ) {
+                Entry<K> next = entry.next;
+                entry.next = null;
+                entries.remove(entry.key);
+                expired.add(entry.key);
+                entry = next;
+            }
+            if (entries.isEmpty()) {
+                // Nothing left to cascade; skip the idle ticks in one step
+                currentTick = Math.max(currentTick, targetTick);
+            }
+        }
+        return expired;
+    }
+
+    // Puts the entry in the lowest level whose span reaches its deadline; false when already due
+    private boolean place(Entry<K> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            return false;
+        }
+        int level = 0;
+        long span = wheelSize;
+        while (delta >= span) {
+            if (span > Long.MAX_VALUE / wheelSize) {
+                break;
+            }
+            level++;
+            span *= wheelSize;
+            if (level == levels.size()) {
+                addLevel();
+            }
+        }
+        bucket(level, entry.deadlineTick).add(entry);
+        return true;
+    }
+
+    private Bucket<K> bucket(int level, long tick) {
+        long slot = tick;
+        for (int i = 0; i < level; i++) {
+            slot /= wheelSize;
+        }
+        return levels.get(level)[(int) Math.floorMod(slot, (long) wheelSize)];
+    }
+
+    private boolean remove(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.bucket.unlink(entry);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addLevel() {
+        Bucket<K>[] buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket<>();
+        }
+        levels.add(buckets);
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long deadlineTick;
+        private Bucket<K> bucket;
+        private Entry<K> prev;
+        private Entry<K> next;
+
+        Entry(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    // Doubly linked so cancel can unlink an entry without scanning its bucket
+    private static final class Bucket<K> {
+        private Entry<K> head;
+
+        void add(Entry<K> entry) {
+            entry.bucket = this;
+            entry.prev = null;
+            entry.next = head;
+            if (head != null) {
+                head.prev = entry;
+            }
+            head = entry;
+        }
+
+        void unlink(Entry<K> entry) {
+            if (entry.prev != null) {
+                entry.prev.next = entry.next;
+            } else {
+                head = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+        }
+
+        // Detaches and returns the whole chain; callers walk it through next
+        Entry<K> drain() {
+            Entry<K> first = head;
+            head = null;
+            for (Entry<K> entry = first; entry != null; entry = entry.next) {
+                entry.bucket = null;
+                entry.prev = null;
+            }
+            return first;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.examly.springapp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Issues and verifies the HS256 access tokens handed out by /api/auth. The subject
+ * is the user id; name and role travel as claims so a request can be authorized
+ * without loading the user.
+ */
+@Component
+public class JwtUtil {
+
+    public static final String CLAIM_NAME = "name";
+    public static final String CLAIM_ROLE = "role";
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final long expirationMillis;
+
+    public JwtUtil(@Value("${app.jwt.secret}") String secret,
+                   @Value("${app.jwt.expiration-minutes:60}") long expirationMinutes) {
+        // HS256 needs at least 256 bits of key material
+        if (secret == null || secret.getBytes(StandardCharsets.UTF_8).length < 32) {
+            throw new IllegalStateException("app.jwt.secret (APP_JWT_SECRET) must be set to at least 32 bytes");
+        }
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.expirationMillis = expirationMinutes * 60_000;
+    }
+
+    public String generateToken(Long userId, String name, String role) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject(String.valueOf(userId))
+                .claim(CLAIM_NAME, name)
+                .claim(CLAIM_ROLE, role)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expirationMillis))
+                .signWith(key)
+                .compact();
+    }
+
+    // Throws io.jsonwebtoken.JwtException when the signature is wrong or the token has expired
+    public Claims parseToken(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+}
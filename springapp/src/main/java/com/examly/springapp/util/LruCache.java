@@ -0,0 +1,57 @@
+package com.examly.springapp.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small bounded LRU map. Access order is tracked so the least recently used
+ * entry is evicted once maxEntries is exceeded. All methods are synchronized;
+ * it is meant for hot, small lookups, not as a general purpose cache.
+ */
+public class LruCache<K, V> {
+
+    private final int maxEntries;
+    private final Map<K, V> entries;
+    private long evictions;
+
+    public LruCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized V remove(K key) {
+        return entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+}
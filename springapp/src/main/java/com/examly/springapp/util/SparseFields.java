@@ -0,0 +1,42 @@
+package com.examly.springapp.util;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.examly.springapp.exception.BadRequestException;
+
+/**
+ * Parses a ?fields=a,b,c sparse fieldset against the fields a resource exposes.
+ * The result follows the resource's field order and always includes "id", which
+ * keyset cursors and clients need to address a row.
+ */
+public final class SparseFields {
+
+    public static final String ID = "id";
+
+    private SparseFields() {
+    }
+
+    public static Set<String> parse(String raw, Collection<String> allowed) {
+        Set<String> requested = new LinkedHashSet<>();
+        requested.add(ID);
+        for (String part : raw.split(",")) {
+            String field = part.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(field)) {
+                throw new BadRequestException("Unknown field '" + field + "'; allowed fields are " + allowed);
+            }
+            requested.add(field);
+        }
+        Set<String> ordered = new LinkedHashSet<>();
+        for (String field : allowed) {
+            if (requested.contains(field)) {
+                ordered.add(field);
+            }
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,31 @@
+package com.examly.springapp.util;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks chosen by key hash, so callers can serialize work per key
+ * (e.g. per blob digest) without keeping a lock object for every key ever seen.
+ * Distinct keys may share a stripe; that only costs some unnecessary waiting.
+ */
+public class StripedLocks {
+
+    private final Lock[] stripes;
+
+    public StripedLocks(int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("stripeCount must be positive");
+        }
+        stripes = new Lock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock get(Object key) {
+        int h = key.hashCode();
+        // Spread high bits so keys differing only there do not collide
+        h ^= (h >>> 16);
+        return stripes[Math.floorMod(h, stripes.length)];
+    }
+}
@@ -0,0 +1,84 @@
+package com.examly.springapp.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class Bm25IndexTest {
+
+    private final Bm25Index index = new Bm25Index();
+
+    @Test
+    void removedDocumentNoLongerMatches() {
+        index.put(1, Map.of("printer", 2, "jam", 1));
+        index.put(2, Map.of("printer", 1, "toner", 1));
+
+        index.remove(1);
+
+        assertEquals(List.of(2L), docIds(index.search(List.of("printer", "jam"), 10)));
+        assertTrue(index.search(List.of("jam"), 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void putReplacesTheDocumentsOldTerms() {
+        index.put(1, Map.of("vpn", 1));
+        index.put(1, Map.of("wifi", 1));
+
+        assertTrue(index.search(List.of("vpn"), 10).isEmpty());
+        assertEquals(List.of(1L), docIds(index.search(List.of("wifi"), 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void reusedOrdinalDoesNotInheritTheRemovedDocumentsTerms() {
+        index.put(1, Map.of("laptop", 1, "battery", 1));
+        index.remove(1);
+        index.put(2, Map.of("laptop", 1));
+
+        assertTrue(index.search(List.of("battery"), 10).isEmpty());
+        assertEquals(List.of(2L), docIds(index.search(List.of("laptop", "battery"), 10)));
+    }
+
+    @Test
+    void removingDocumentsScoresLikeAnIndexBuiltWithoutThem() {
+        Random random = new Random(42);
+        Map<Long, Map<String, Integer>> docs = new HashMap<>();
+        for (long id = 1; id <= 200; id++) {
+            Map<String, Integer> termFreqs = new HashMap<>();
+            for (int t = 0; t < 8; t++) {
+                termFreqs.merge("term" + random.nextInt(60), 1 + random.nextInt(3), Integer::sum);
+            }
+            docs.put(id, termFreqs);
+            index.put(id, termFreqs);
+        }
+        Bm25Index expected = new Bm25Index();
+        docs.forEach((id, termFreqs) -> {
+            if (id % 3 == 0) {
+                index.remove(id);
+            } else {
+                expected.put(id, termFreqs);
+            }
+        });
+
+        List<String> query = List.of("term1", "term7", "term33", "term59");
+        List<Bm25Index.Hit> actual = index.search(query, 200);
+        List<Bm25Index.Hit> fresh = expected.search(query, 200);
+        assertEquals(expected.size(), index.size());
+        assertEquals(docIds(fresh), docIds(actual));
+        for (int i = 0; i < fresh.size(); i++) {
+            assertEquals(fresh.get(i).getScore(), actual.get(i).getScore(), 1e-9);
+        }
+    }
+
+    private static List<Long> docIds(List<Bm25Index.Hit> hits) {
+        return hits.stream().map(Bm25Index.Hit::getDocId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,100 @@
+package com.examly.springapp.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.examly.springapp.model.Attachment;
+import com.examly.springapp.repository.AttachmentRepository;
+import com.examly.springapp.repository.ContentBlobRepository;
+import com.examly.springapp.repository.TicketRepository;
+import com.examly.springapp.storage.BlobStore;
+
+class AttachmentServiceImplTest {
+
+    private static final String DIGEST = "a".repeat(64);
+
+    private AttachmentRepository attachmentRepository;
+    private ContentBlobRepository contentBlobRepository;
+    private BlobStore blobStore;
+    private AttachmentServiceImpl attachments;
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+
+    @BeforeEach
+    void setUp() {
+        attachmentRepository = mock(AttachmentRepository.class);
+        contentBlobRepository = mock(ContentBlobRepository.class);
+        blobStore = mock(BlobStore.class);
+        attachments = new AttachmentServiceImpl(attachmentRepository, mock(TicketRepository.class),
+                contentBlobRepository, blobStore);
+    }
+
+    @Test
+    void lastReferenceDeletesTheFileAfterCommit() throws IOException {
+        attachment(1L, DIGEST);
+        when(contentBlobRepository.existsById(DIGEST)).thenReturn(true);
+        when(contentBlobRepository.decrementRefCount(DIGEST)).thenReturn(1);
+        when(contentBlobRepository.deleteIfUnreferenced(DIGEST)).thenReturn(1);
+
+        delete(1L);
+
+        verify(blobStore).delete(DIGEST);
+    }
+
+    @Test
+    void sharedContentKeepsTheFile() throws IOException {
+        attachment(1L, DIGEST);
+        when(contentBlobRepository.existsById(DIGEST)).thenReturn(true);
+        when(contentBlobRepository.decrementRefCount(DIGEST)).thenReturn(1);
+
+        delete(1L);
+
+        verify(blobStore, never()).delete(DIGEST);
+    }
+
+    @Test
+    void countAlreadyAtZeroKeepsTheFileWhileItsRowSurvives() throws IOException {
+        // Nothing to decrement, and the row is not removed (e.g. another instance just counted a new upload)
+        attachment(1L, DIGEST);
+        when(contentBlobRepository.existsById(DIGEST)).thenReturn(true);
+        when(contentBlobRepository.decrementRefCount(DIGEST)).thenReturn(0);
+        when(contentBlobRepository.deleteIfUnreferenced(DIGEST)).thenReturn(0);
+
+        delete(1L);
+
+        verify(blobStore, never()).delete(DIGEST);
+    }
+
+    @Test
+    void fileWithoutABlobsRowGoesWithItsLastAttachment() throws IOException {
+        String legacyKey = "0b7c6a2e-54f1-4c1e-9d1a-3f2b8c9e7d61";
+        attachment(1L, legacyKey);
+        attachment(2L, legacyKey);
+        when(attachmentRepository.existsByStorageKey(legacyKey)).thenReturn(true, false);
+
+        delete(1L);
+        verify(blobStore, never()).delete(legacyKey);
+        delete(2L);
+        verify(blobStore).delete(legacyKey);
+        verify(contentBlobRepository, never()).deleteIfUnreferenced(legacyKey);
+    }
+
+    private void attachment(Long id, String storageKey) {
+        Attachment attachment = new Attachment();
+        attachment.setId(id);
+        attachment.setStorageKey(storageKey);
+        when(attachmentRepository.findById(id)).thenReturn(Optional.of(attachment));
+    }
+
+    private void delete(Long id) {
+        transactionTemplate.executeWithoutResult(status -> attachments.deleteAttachment(id));
+    }
+}
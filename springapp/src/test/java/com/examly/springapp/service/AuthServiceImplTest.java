@@ -0,0 +1,62 @@
+package com.examly.springapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.examly.springapp.dto.AuthResponse;
+import com.examly.springapp.dto.CreateUserRequest;
+import com.examly.springapp.dto.SignupRequest;
+import com.examly.springapp.model.User;
+import com.examly.springapp.repository.UserRepository;
+import com.examly.springapp.util.JwtUtil;
+
+class AuthServiceImplTest {
+
+    private UserService userService;
+    private JwtUtil jwtUtil;
+    private AuthServiceImpl auth;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        userService = mock(UserService.class);
+        jwtUtil = mock(JwtUtil.class);
+        when(userService.createUser(any())).thenAnswer(call -> {
+            CreateUserRequest request = call.getArgument(0);
+            User user = new User();
+            user.setId(5L);
+            user.setName(request.getName());
+            user.setRole(User.Role.valueOf(request.getRole()));
+            return user;
+        });
+        when(jwtUtil.generateToken(anyLong(), anyString(), anyString())).thenReturn("token");
+        auth = new AuthServiceImpl(userRepository, userService, jwtUtil);
+    }
+
+    @Test
+    void signupAskingForAdminCreatesAnEmployee() {
+        AuthResponse response = auth.signup(new SignupRequest("mallory", "mallory@x.com", "secret", "ADMIN"));
+
+        ArgumentCaptor<CreateUserRequest> created = ArgumentCaptor.forClass(CreateUserRequest.class);
+        verify(userService).createUser(created.capture());
+        assertEquals("EMPLOYEE", created.getValue().getRole());
+        assertEquals("employee", response.getRole());
+        verify(jwtUtil).generateToken(5L, "mallory", "employee");
+    }
+
+    @Test
+    void signupWithoutARoleCreatesAnEmployee() {
+        AuthResponse response = auth.signup(new SignupRequest("erin", "erin@x.com", "secret", null));
+
+        assertEquals("employee", response.getRole());
+    }
+}
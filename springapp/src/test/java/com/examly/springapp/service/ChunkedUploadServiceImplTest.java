@@ -0,0 +1,314 @@
+package com.examly.springapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import com.examly.springapp.dto.ChunkReceipt;
+import com.examly.springapp.dto.ChunkedUploadStatus;
+import com.examly.springapp.dto.InitChunkedUploadRequest;
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.exception.ConflictException;
+import com.examly.springapp.exception.ResourceNotFoundException;
+import com.examly.springapp.repository.TicketRepository;
+import com.examly.springapp.storage.LocalBlobStore;
+import com.examly.springapp.storage.StagedBlob;
+
+class ChunkedUploadServiceImplTest {
+
+    // The smallest chunk size the service allows
+    private static final int CHUNK = 256 * 1024;
+
+    @TempDir
+    Path storageDir;
+
+    private AttachmentService attachmentService;
+    private ChunkedUploadServiceImpl uploads;
+    // Two full chunks and a short last one
+    private final byte[] content = randomBytes(2 * CHUNK + 1000);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        attachmentService = mock(AttachmentService.class);
+        TicketRepository ticketRepository = mock(TicketRepository.class);
+        when(ticketRepository.existsById(anyLong())).thenReturn(true);
+        uploads = new ChunkedUploadServiceImpl(new LocalBlobStore(storageDir.toString()), attachmentService,
+                ticketRepository, 1024 * 1024 * 1024L, 60);
+    }
+
+    @Test
+    void chunksInAnyOrderAssembleTheFile() throws IOException {
+        String id = start();
+
+        for (int index : new int[] {2, 0, 1}) {
+            uploads.writeChunk(id, index, chunk(index), sha256(slice(content, index)));
+        }
+        StagedBlob staged = complete(id);
+
+        assertEquals(sha256(content), staged.getDigest());
+        assertArrayEquals(content, Files.readAllBytes(staged.getTempFile()));
+    }
+
+    @Test
+    void resentChunkReplacesTheOldBytesAndCountsOnce() throws IOException {
+        String id = start();
+        byte[] garbage = randomBytes(CHUNK);
+
+        uploads.writeChunk(id, 0, new ByteArrayInputStream(garbage), null);
+        ChunkReceipt resent = uploads.writeChunk(id, 0, chunk(0), null);
+        uploads.writeChunk(id, 1, chunk(1), null);
+        uploads.writeChunk(id, 2, chunk(2), null);
+
+        assertEquals(1, resent.getReceivedChunks());
+        assertEquals(sha256(content), complete(id).getDigest());
+    }
+
+    @Test
+    void resentChunkThatFailsVerificationIsMissingAgain() {
+        String id = start();
+        uploads.writeChunk(id, 0, chunk(0), null);
+
+        assertThrows(BadRequestException.class,
+                () -> uploads.writeChunk(id, 0, chunk(0), sha256(new byte[] {1, 2, 3})));
+
+        ChunkedUploadStatus status = uploads.getStatus(id);
+        assertEquals(0, status.getReceivedChunks());
+        assertEquals(List.of(0, 1, 2), status.getMissingChunks());
+    }
+
+    @Test
+    void sameChunkWrittenConcurrentlyIsRefusedUntilTheFirstCopyEnds() throws Exception {
+        String id = start();
+        CountDownLatch firstHalfRead = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream slowChunk = new SlowStream(slice(content, 0), CHUNK / 2, firstHalfRead, release);
+
+        AtomicReference<ChunkReceipt> firstReceipt = new AtomicReference<>();
+        Thread first = new Thread(() -> firstReceipt.set(uploads.writeChunk(id, 0, slowChunk, null)));
+        first.start();
+        await(firstHalfRead);
+
+        byte[] other = randomBytes(CHUNK);
+        assertThrows(ConflictException.class, () -> uploads.writeChunk(id, 0, new ByteArrayInputStream(other), null));
+        // Other chunks of the same upload still go through in parallel
+        uploads.writeChunk(id, 1, chunk(1), null);
+
+        release.countDown();
+        first.join(5_000);
+        assertEquals(sha256(slice(content, 0)), firstReceipt.get().getSha256());
+
+        // Once the first copy is done the chunk can be sent again
+        uploads.writeChunk(id, 0, chunk(0), null);
+        uploads.writeChunk(id, 2, chunk(2), null);
+        assertEquals(sha256(content), complete(id).getDigest());
+    }
+
+    @Test
+    void shortOrLongChunkBodyIsRejectedAndNotCounted() {
+        String id = start();
+
+        assertThrows(BadRequestException.class,
+                () -> uploads.writeChunk(id, 0, new ByteArrayInputStream(new byte[CHUNK - 1]), null));
+        assertThrows(BadRequestException.class,
+                () -> uploads.writeChunk(id, 2, new ByteArrayInputStream(new byte[1001]), null));
+
+        assertEquals(0, uploads.getStatus(id).getReceivedChunks());
+    }
+
+    @Test
+    void chunkIndexOutsideTheUploadIsRejected() {
+        String id = start();
+
+        assertThrows(BadRequestException.class, () -> uploads.writeChunk(id, -1, chunk(0), null));
+        assertThrows(BadRequestException.class, () -> uploads.writeChunk(id, 3, chunk(0), null));
+    }
+
+    @Test
+    void completeWithMissingChunksIsRejected() {
+        String id = start();
+        uploads.writeChunk(id, 0, chunk(0), null);
+        uploads.writeChunk(id, 2, chunk(2), null);
+
+        BadRequestException e = assertThrows(BadRequestException.class, () -> uploads.complete(id));
+        assertEquals("1 of 3 chunks have not been received", e.getMessage());
+        verify(attachmentService, never()).attachStaged(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void completeThatFailsVerificationKeepsTheUploadForARetry() throws IOException {
+        rejectMismatchedContent();
+        String id = start(sha256(content));
+        uploads.writeChunk(id, 0, chunk(0), null);
+        // Corrupted in transit, and no per-chunk sha256 to catch it
+        uploads.writeChunk(id, 1, new ByteArrayInputStream(randomBytes(CHUNK)), null);
+        uploads.writeChunk(id, 2, chunk(2), null);
+
+        assertThrows(BadRequestException.class, () -> uploads.complete(id));
+        assertEquals(3, uploads.getStatus(id).getReceivedChunks());
+
+        uploads.writeChunk(id, 1, chunk(1), null);
+        uploads.complete(id);
+        ArgumentCaptor<StagedBlob> staged = ArgumentCaptor.forClass(StagedBlob.class);
+        verify(attachmentService, times(2)).attachStaged(eq(7L), eq("dump.bin"), isNull(), staged.capture(),
+                eq(sha256(content)));
+        assertEquals(sha256(content), staged.getValue().getDigest());
+        assertArrayEquals(content, Files.readAllBytes(staged.getValue().getTempFile()));
+        assertThrows(ResourceNotFoundException.class, () -> uploads.getStatus(id));
+    }
+
+    @Test
+    void failedCompleteCanBeAbortedWithoutLeavingFiles() throws IOException {
+        rejectMismatchedContent();
+        String id = start(sha256(new byte[] {1, 2, 3}));
+        for (int index = 0; index < 3; index++) {
+            uploads.writeChunk(id, index, chunk(index), null);
+        }
+
+        assertThrows(BadRequestException.class, () -> uploads.complete(id));
+        uploads.abort(id);
+
+        assertThrows(ResourceNotFoundException.class, () -> uploads.getStatus(id));
+        try (Stream<Path> left = Files.list(storageDir.resolve("tmp"))) {
+            assertEquals(List.of(), left.collect(Collectors.toList()));
+        }
+    }
+
+    private String start() {
+        return start(null);
+    }
+
+    private String start(String sha256) {
+        InitChunkedUploadRequest request = new InitChunkedUploadRequest();
+        request.setSha256(sha256);
+        request.setTicketId(7L);
+        request.setFileName("dump.bin");
+        request.setSize((long) content.length);
+        request.setChunkSize(CHUNK);
+        ChunkedUploadStatus status = uploads.start(request);
+        assertEquals(3, status.getChunkCount());
+        return status.getUploadId();
+    }
+
+    // Like AttachmentServiceImpl: content that does not match the declared sha256 is discarded and refused
+    private void rejectMismatchedContent() {
+        when(attachmentService.attachStaged(any(), any(), any(), any(), any())).thenAnswer(call -> {
+            StagedBlob staged = call.getArgument(3);
+            String expected = call.getArgument(4);
+            if (expected != null && !expected.equals(staged.getDigest())) {
+                Files.delete(staged.getTempFile());
+                throw new BadRequestException("Uploaded content does not match sha256 " + expected);
+            }
+            return null;
+        });
+    }
+
+    private StagedBlob complete(String id) {
+        uploads.complete(id);
+        ArgumentCaptor<StagedBlob> staged = ArgumentCaptor.forClass(StagedBlob.class);
+        verify(attachmentService).attachStaged(eq(7L), eq("dump.bin"), isNull(), staged.capture(), isNull());
+        return staged.getValue();
+    }
+
+    private InputStream chunk(int index) {
+        return new ByteArrayInputStream(slice(content, index));
+    }
+
+    private static byte[] slice(byte[] bytes, int index) {
+        int from = index * CHUNK;
+        return Arrays.copyOfRange(bytes, from, Math.min(bytes.length, from + CHUNK));
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                fail("Timed out waiting for the chunk write");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Hands out the first part of the body, then blocks until released, like a slow client
+    private static final class SlowStream extends InputStream {
+        private final byte[] bytes;
+        private final int pauseAt;
+        private final CountDownLatch paused;
+        private final CountDownLatch release;
+        private int position;
+
+        SlowStream(byte[] bytes, int pauseAt, CountDownLatch paused, CountDownLatch release) {
+            this.bytes = bytes;
+            this.pauseAt = pauseAt;
+            this.paused = paused;
+            this.release = release;
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (position == pauseAt) {
+                paused.countDown();
+                await(release);
+            }
+            if (position >= bytes.length) {
+                return -1;
+            }
+            int end = position < pauseAt ? pauseAt : bytes.length;
+            int count = Math.min(length, end - position);
+            System.arraycopy(bytes, position, target, offset, count);
+            position += count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.examly.springapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.examly.springapp.dto.TicketListItem;
+import com.examly.springapp.event.TicketChangedEvent;
+import com.examly.springapp.model.TicketStatus;
+import com.examly.springapp.repository.TicketRepository;
+import com.examly.springapp.repository.UserRepository;
+
+class DashboardCountersTest {
+
+    private static final long HIGH = 3L;
+    private static final long NETWORK = 5L;
+
+    private DashboardCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        TicketRepository ticketRepository = mock(TicketRepository.class);
+        when(ticketRepository.countGroupedByDashboardKey()).thenReturn(List.<Object[]>of(
+                new Object[] {TicketStatus.New, HIGH, NETWORK, null, 2L}));
+        counters = new DashboardCounters(ticketRepository, mock(UserRepository.class));
+        counters.seed();
+    }
+
+    @Test
+    void renamedPriorityAndCategoryKeepOneCount() {
+        // Seeded under the old names, changed after "High" became "P1" and "Network Problem" became "Network"
+        TicketListItem before = item(1L, TicketStatus.New, "High", "Network Problem");
+        TicketListItem after = item(1L, TicketStatus.In_Progress, "P1", "Network");
+        counters.onTicketChanged(TicketChangedEvent.changed(TicketChangedEvent.Type.STATUS_CHANGED, before, after));
+        counters.onTicketChanged(TicketChangedEvent.created(item(2L, TicketStatus.New, "P1", "Network")));
+
+        assertEquals(3, counters.getPriorityCount(HIGH));
+        assertEquals(3, counters.getCategoryCount(NETWORK));
+        assertEquals(2, counters.getStatusCount(TicketStatus.New));
+        assertEquals(1, counters.getStatusCount(TicketStatus.In_Progress));
+    }
+
+    @Test
+    void deletedTicketLeavesItsPriorityAndCategory() {
+        counters.onTicketChanged(TicketChangedEvent.deleted(item(1L, TicketStatus.New, "High", "Network Problem")));
+
+        assertEquals(1, counters.getPriorityCount(HIGH));
+        assertEquals(1, counters.getCategoryCount(NETWORK));
+        assertEquals(1, counters.getTotalTickets());
+    }
+
+    private static TicketListItem item(Long id, TicketStatus status, String priority, String category) {
+        return new TicketListItem(id, "Ticket " + id, null, status, HIGH, priority, NETWORK, category,
+                1L, "erin", null, null, LocalDateTime.now());
+    }
+}
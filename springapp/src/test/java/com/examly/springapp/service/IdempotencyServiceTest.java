@@ -0,0 +1,280 @@
+package com.examly.springapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.examly.springapp.exception.BadRequestException;
+import com.examly.springapp.model.IdempotencyRecord;
+import com.examly.springapp.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "POST /api/tickets";
+    private static final Map<String, Object> REQUEST = Map.of("title", "Printer on fire");
+
+    // Stands in for the idempotency_keys table; saveAndFlush fails on a duplicate id like the primary key
+    private final Map<String, IdempotencyRecord> table = new ConcurrentHashMap<>();
+    // When set, another instance commits the key just before this one does
+    private final AtomicBoolean otherInstanceWins = new AtomicBoolean();
+    private final AtomicInteger runs = new AtomicInteger();
+
+    private IdempotencyRecordRepository repository;
+    private TransactionTemplate transactionTemplate;
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRecordRepository.class);
+        when(repository.findById(anyString())).thenAnswer(call -> Optional.ofNullable(table.get(call.getArgument(0))));
+        when(repository.saveAndFlush(any())).thenAnswer(call -> {
+            IdempotencyRecord record = call.getArgument(0);
+            if (otherInstanceWins.get()) {
+                table.put(record.getId(), new IdempotencyRecord(record.getId(), record.getRequestHash(), 201,
+                        "{\"id\":99}", LocalDateTime.now().plusHours(1)));
+            }
+            if (table.putIfAbsent(record.getId(), record) != null) {
+                throw new DataIntegrityViolationException("Duplicate entry for key 'PRIMARY'");
+            }
+            return record;
+        });
+        doAnswer(call -> table.remove(((IdempotencyRecord) call.getArgument(0)).getId()))
+                .when(repository).delete(any());
+        transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+        service = newService();
+    }
+
+    @AfterEach
+    void clearCaller() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void withoutAKeyTheActionAlwaysRuns() {
+        service.execute(SCOPE, null, REQUEST, this::create);
+        service.execute(SCOPE, null, REQUEST, this::create);
+
+        assertEquals(2, runs.get());
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    void retryWithTheSameKeyReplaysTheFirstResponse() {
+        ResponseEntity<?> first = service.execute(SCOPE, "k1", REQUEST, this::create);
+        ResponseEntity<?> retry = service.execute(SCOPE, "k1", REQUEST, this::create);
+
+        assertEquals(1, runs.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void storedResponseIsReplayedAfterARestart() {
+        ResponseEntity<?> first = service.execute(SCOPE, "k1", REQUEST, this::create);
+
+        ResponseEntity<?> retry = newService().execute(SCOPE, "k1", REQUEST, this::create);
+
+        assertEquals(1, runs.get());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void reusingAKeyForADifferentRequestIsRejected() {
+        service.execute(SCOPE, "k1", REQUEST, this::create);
+
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> service.execute(SCOPE, "k1", Map.of("title", "Something else"), this::create));
+        assertTrue(e.getMessage().contains("different request"));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void blankOrOversizedKeyIsRejected() {
+        assertThrows(BadRequestException.class, () -> service.execute(SCOPE, " ", REQUEST, this::create));
+        assertThrows(BadRequestException.class,
+                () -> service.execute(SCOPE, "k".repeat(256), REQUEST, this::create));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void keysAreScopedByEndpointAndCaller() {
+        actAs(1L);
+        service.execute(SCOPE, "k1", REQUEST, this::create);
+        service.execute("POST /api/attachments", "k1", REQUEST, this::create);
+        actAs(2L);
+        service.execute(SCOPE, "k1", REQUEST, this::create);
+
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    void failedResponseIsNotStoredAndTheRetryRuns() {
+        ResponseEntity<?> failed = service.execute(SCOPE, "k1", REQUEST,
+                () -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "busy")));
+        ResponseEntity<?> retry = service.execute(SCOPE, "k1", REQUEST, this::create);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, failed.getStatusCode());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertNull(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void concurrentRetryWaitsForTheFirstRequestAndReplaysIt() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ResponseEntity<Map<String, Object>>> slowCreate = () -> {
+            entered.countDown();
+            await(release);
+            return create();
+        };
+
+        AtomicReference<ResponseEntity<?>> firstResponse = new AtomicReference<>();
+        Thread first = new Thread(() -> firstResponse.set(service.execute(SCOPE, "k1", REQUEST, slowCreate)));
+        first.start();
+        await(entered);
+
+        AtomicReference<ResponseEntity<?>> retryResponse = new AtomicReference<>();
+        Thread retry = new Thread(() -> retryResponse.set(service.execute(SCOPE, "k1", REQUEST, this::create)));
+        retry.start();
+        awaitParked(retry);
+
+        release.countDown();
+        first.join(5_000);
+        retry.join(5_000);
+
+        assertEquals(1, runs.get());
+        assertEquals(firstResponse.get().getBody(), retryResponse.get().getBody());
+        assertEquals("true", retryResponse.get().getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void failedFirstAttemptLetsTheWaitingRetryRun() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ResponseEntity<Map<String, Object>>> failingCreate = () -> {
+            entered.countDown();
+            await(release);
+            throw new IllegalStateException("database went away");
+        };
+
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        Thread first = new Thread(() -> {
+            try {
+                service.execute(SCOPE, "k1", REQUEST, failingCreate);
+            } catch (RuntimeException e) {
+                firstError.set(e);
+            }
+        });
+        first.start();
+        await(entered);
+
+        AtomicReference<ResponseEntity<?>> retryResponse = new AtomicReference<>();
+        Thread retry = new Thread(() -> retryResponse.set(service.execute(SCOPE, "k1", REQUEST, this::create)));
+        retry.start();
+        awaitParked(retry);
+
+        release.countDown();
+        first.join(5_000);
+        retry.join(5_000);
+
+        assertTrue(firstError.get() instanceof IllegalStateException);
+        assertEquals(1, runs.get());
+        assertEquals(HttpStatus.CREATED, retryResponse.get().getStatusCode());
+        assertNull(retryResponse.get().getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void keyCommittedFirstByAnotherInstanceIsReplayed() {
+        otherInstanceWins.set(true);
+
+        ResponseEntity<?> response = service.execute(SCOPE, "k1", REQUEST, this::create);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(99, ((JsonNode) response.getBody()).get("id").asInt());
+        assertEquals("true", response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void expiredKeyRunsTheActionAgain() {
+        service.execute(SCOPE, "k1", REQUEST, this::create);
+        List.copyOf(table.values()).forEach(record -> record.setExpiresAt(LocalDateTime.now().minusSeconds(1)));
+
+        ResponseEntity<?> again = service.execute(SCOPE, "k1", Map.of("title", "New request"), this::create);
+
+        assertEquals(2, runs.get());
+        assertNull(again.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(1, table.size());
+    }
+
+    private IdempotencyService newService() {
+        return new IdempotencyService(repository, transactionTemplate, new ObjectMapper(), 24, 100);
+    }
+
+    private ResponseEntity<Map<String, Object>> create() {
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", runs.incrementAndGet()));
+    }
+
+    private static void actAs(Long userId) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, "user" + userId, "USER");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                fail("Timed out waiting for the first request");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The retry is blocked once it parks on the first request's future
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING) {
+            if (System.nanoTime() > deadline) {
+                fail("Retry never waited for the first request");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
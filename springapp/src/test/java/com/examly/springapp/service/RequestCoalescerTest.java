@@ -0,0 +1,238 @@
+package com.examly.springapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RequestCoalescerTest {
+
+    private static final Duration LONG = Duration.ofMinutes(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(meterRegistry);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void freshValueIsServedWithoutLoadingAgain() {
+        RequestCoalescer.Cache<String, String> cache = coalescer.create("lookups", LONG, LONG);
+
+        assertEquals("v1", cache.get("k", counting("v1")));
+        assertEquals("v1", cache.get("k", counting("v2")));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, requests("lookups", "miss"));
+        assertEquals(1, requests("lookups", "hit"));
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        RequestCoalescer.Cache<String, String> cache = coalescer.create("dashboard", LONG, LONG);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> slow = () -> {
+            loads.incrementAndGet();
+            entered.countDown();
+            await(release);
+            return "v1";
+        };
+
+        List<AtomicReference<String>> results = new ArrayList<>();
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            AtomicReference<String> result = new AtomicReference<>();
+            results.add(result);
+            callers.add(new Thread(() -> result.set(cache.get("k", slow))));
+        }
+        callers.get(0).start();
+        await(entered);
+        callers.get(1).start();
+        callers.get(2).start();
+        awaitParked(callers.get(1));
+        awaitParked(callers.get(2));
+        release.countDown();
+        for (Thread caller : callers) {
+            caller.join(5_000);
+        }
+
+        assertEquals(1, loads.get());
+        results.forEach(result -> assertEquals("v1", result.get()));
+        assertEquals(2, requests("dashboard", "coalesced"));
+    }
+
+    @Test
+    void failedLoadReachesWaitersAndIsNotCached() throws Exception {
+        RequestCoalescer.Cache<String, String> cache = coalescer.create("kb", LONG, LONG);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database went away");
+        Supplier<String> failing = () -> {
+            loads.incrementAndGet();
+            entered.countDown();
+            await(release);
+            throw failure;
+        };
+
+        AtomicReference<RuntimeException> firstError = new AtomicReference<>();
+        Thread first = new Thread(() -> firstError.set(getFailure(cache, failing)));
+        first.start();
+        await(entered);
+        AtomicReference<RuntimeException> waiterError = new AtomicReference<>();
+        Thread waiter = new Thread(() -> waiterError.set(getFailure(cache, failing)));
+        waiter.start();
+        awaitParked(waiter);
+        release.countDown();
+        first.join(5_000);
+        waiter.join(5_000);
+
+        assertSame(failure, firstError.get());
+        assertSame(failure, waiterError.get());
+        assertEquals("v2", cache.get("k", counting("v2")));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void staleValueIsServedWhileOneBackgroundLoadReplacesIt() throws Exception {
+        // No fresh period: every value is stale as soon as it is stored
+        RequestCoalescer.Cache<String, String> cache = coalescer.create("lookups", Duration.ZERO, LONG);
+        assertEquals("v1", cache.get("k", counting("v1")));
+
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger refreshes = new AtomicInteger();
+        Supplier<String> slowRefresh = () -> {
+            refreshes.incrementAndGet();
+            entered.countDown();
+            await(release);
+            return "v2";
+        };
+
+        assertEquals("v1", cache.get("k", slowRefresh));
+        await(entered);
+        // A refresh is already running, so this one neither waits nor starts another
+        assertEquals("v1", cache.get("k", slowRefresh));
+        assertEquals(1, refreshes.get());
+        assertEquals(2, requests("lookups", "stale"));
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!"v2".equals(cache.get("k", () -> "v2"))) {
+            if (System.nanoTime() > deadline) {
+                fail("Background refresh never replaced the stale value");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void pastTheStaleWindowTheCallerLoads() {
+        RequestCoalescer.Cache<String, String> cache = coalescer.create("lookups", Duration.ZERO, Duration.ZERO);
+
+        assertEquals("v1", cache.get("k", counting("v1")));
+        assertEquals("v2", cache.get("k", counting("v2")));
+
+        assertEquals(2, loads.get());
+        assertEquals(2, requests("lookups", "miss"));
+    }
+
+    @Test
+    void invalidateDropsTheCachedValue() {
+        RequestCoalescer.Cache<String, String> cache = coalescer.create("lookups", LONG, LONG);
+        cache.get("a", counting("a1"));
+        cache.get("b", counting("b1"));
+
+        cache.invalidate("a");
+        assertEquals("a2", cache.get("a", counting("a2")));
+        assertEquals("b1", cache.get("b", counting("b2")));
+
+        cache.invalidateAll();
+        assertEquals("b3", cache.get("b", counting("b3")));
+    }
+
+    @Test
+    void loadStartedBeforeAnInvalidationDoesNotStoreItsResult() throws Exception {
+        RequestCoalescer.Cache<String, String> cache = coalescer.create("dashboard", LONG, LONG);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> slowOld = () -> {
+            entered.countDown();
+            await(release);
+            return "before-write";
+        };
+
+        AtomicReference<String> inFlightResult = new AtomicReference<>();
+        Thread reader = new Thread(() -> inFlightResult.set(cache.get("k", slowOld)));
+        reader.start();
+        await(entered);
+        // A write lands while the read is still loading
+        cache.invalidate("k");
+        release.countDown();
+        reader.join(5_000);
+
+        // The caller that started the load still gets its result, but it is not kept
+        assertEquals("before-write", inFlightResult.get());
+        assertEquals("after-write", cache.get("k", counting("after-write")));
+        assertEquals(1, loads.get());
+    }
+
+    private Supplier<String> counting(String value) {
+        return () -> {
+            loads.incrementAndGet();
+            return value;
+        };
+    }
+
+    private static RuntimeException getFailure(RequestCoalescer.Cache<String, String> cache, Supplier<String> loader) {
+        try {
+            cache.get("k", loader);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private long requests(String cache, String result) {
+        return (long) meterRegistry.get("coalescer.requests").tag("cache", cache).tag("result", result)
+                .counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                fail("Timed out waiting for the load");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // A coalesced caller is blocked once it parks on the running load's future
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING) {
+            if (System.nanoTime() > deadline) {
+                fail(thread.getName() + " never waited for the running load");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.examly.springapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.examly.springapp.event.SlaBreachedEvent;
+import com.examly.springapp.model.Priority;
+import com.examly.springapp.model.Ticket;
+import com.examly.springapp.model.TicketStatus;
+import com.examly.springapp.repository.TicketRepository;
+
+@ExtendWith(MockitoExtension.class)
+class SlaSchedulerTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ApplicationEventPublisher events;
+    @Mock
+    private TicketChangeVersions changeVersions;
+
+    private TransactionTemplate transactionTemplate;
+    private SlaScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+        scheduler = new SlaScheduler(ticketRepository, jdbcTemplate, transactionTemplate, events, changeVersions,
+                1000, 512);
+    }
+
+    @Test
+    void applyTargetsCountsFromCreationAndPicksTheEarliestPendingDeadline() {
+        LocalDateTime created = LocalDateTime.of(2026, 1, 5, 9, 0);
+        Ticket ticket = ticket(1L, TicketStatus.New);
+        ticket.setCreatedAt(created);
+        ticket.setPriority(priority(30, 240));
+
+        scheduler.applyTargets(ticket);
+
+        assertEquals(created.plusMinutes(30), ticket.getResponseDueAt());
+        assertEquals(created.plusMinutes(240), ticket.getResolutionDueAt());
+        assertEquals(created.plusMinutes(30), ticket.getSlaDueAt());
+
+        // Once the ticket leaves New only the resolution target is pending
+        ticket.setStatus(TicketStatus.In_Progress);
+        scheduler.applyTargets(ticket);
+        assertEquals(created.plusMinutes(240), ticket.getSlaDueAt());
+    }
+
+    @Test
+    void rebuildQueuesAlreadyDueTicketsAndTheNextTickBreachesThem() {
+        LocalDateTime past = LocalDateTime.now().minusMinutes(5);
+        Ticket overdue = ticket(1L, TicketStatus.New);
+        overdue.setResponseDueAt(past);
+        overdue.setResolutionDueAt(LocalDateTime.now().plusHours(4));
+        overdue.setSlaDueAt(past);
+        when(ticketRepository.lockById(1L)).thenReturn(Optional.of(overdue));
+        rows(Map.of(1L, past, 2L, LocalDateTime.now().plusHours(1)));
+
+        scheduler.rebuild();
+        scheduler.tick();
+
+        // Only the due ticket is read; the other one waits on the wheel
+        verify(ticketRepository).lockById(1L);
+        verify(ticketRepository, never()).lockById(2L);
+        List<SlaBreachedEvent> breaches = breaches();
+        assertEquals(1, breaches.size());
+        assertEquals(SlaBreachedEvent.Target.RESPONSE, breaches.get(0).getTarget());
+        assertEquals(past, breaches.get(0).getDueAt());
+        assertNotNull(overdue.getResponseBreachedAt());
+        assertNull(overdue.getResolutionBreachedAt());
+        assertEquals(overdue.getResolutionDueAt(), overdue.getSlaDueAt());
+        verify(ticketRepository).save(overdue);
+
+        // Handled: a second tick does not evaluate it again
+        scheduler.tick();
+        verify(ticketRepository, times(1)).lockById(1L);
+    }
+
+    @Test
+    void ticketThatMovedOnInTimeIsNotBreached() {
+        LocalDateTime past = LocalDateTime.now().minusMinutes(1);
+        Ticket resolved = ticket(1L, TicketStatus.Resolved);
+        resolved.setResponseDueAt(past);
+        resolved.setResolutionDueAt(past);
+        resolved.setSlaDueAt(past);
+        when(ticketRepository.lockById(1L)).thenReturn(Optional.of(resolved));
+        rows(Map.of(1L, past));
+
+        scheduler.rebuild();
+        scheduler.tick();
+
+        assertTrue(breaches().isEmpty());
+        assertNull(resolved.getResponseBreachedAt());
+        verify(ticketRepository).updateSlaDueAt(1L, null);
+        verify(ticketRepository, never()).save(any());
+    }
+
+    @Test
+    void deadlineMoveWithoutABreachLeavesTheVersionAndFeedAlone() {
+        LocalDateTime past = LocalDateTime.now().minusMinutes(1);
+        // Picked up in time: the response deadline passed unmet but no longer applies
+        Ticket ticket = ticket(1L, TicketStatus.In_Progress);
+        ticket.setVersion(4L);
+        ticket.setResponseDueAt(past);
+        ticket.setResolutionDueAt(LocalDateTime.now().plusHours(4));
+        ticket.setSlaDueAt(past);
+        when(ticketRepository.lockById(1L)).thenReturn(Optional.of(ticket));
+        rows(Map.of(1L, past));
+
+        scheduler.rebuild();
+        scheduler.tick();
+
+        // The next deadline is written without dirtying the entity, so @Version does not move
+        verify(ticketRepository).updateSlaDueAt(1L, ticket.getResolutionDueAt());
+        verify(ticketRepository, never()).save(any());
+        assertEquals(past, ticket.getSlaDueAt());
+        assertEquals(4L, ticket.getVersion());
+        assertNull(ticket.getResponseBreachedAt());
+        verify(changeVersions, never()).next();
+        verify(events, never()).publishEvent(any());
+    }
+
+    @Test
+    void deadlineMovedLaterIsLeftAlone() {
+        LocalDateTime past = LocalDateTime.now().minusMinutes(1);
+        Ticket ticket = ticket(1L, TicketStatus.New);
+        ticket.setResponseDueAt(LocalDateTime.now().plusHours(1));
+        ticket.setSlaDueAt(ticket.getResponseDueAt());
+        when(ticketRepository.lockById(1L)).thenReturn(Optional.of(ticket));
+        rows(Map.of(1L, past));
+
+        scheduler.rebuild();
+        scheduler.tick();
+
+        verify(ticketRepository, never()).save(any());
+        assertTrue(breaches().isEmpty());
+    }
+
+    @Test
+    void trackArmsTheTimerOnlyAfterCommit() {
+        Ticket committed = ticket(1L, TicketStatus.New);
+        committed.setSlaDueAt(LocalDateTime.now().minusSeconds(1));
+        Ticket rolledBack = ticket(2L, TicketStatus.New);
+        rolledBack.setSlaDueAt(LocalDateTime.now().minusSeconds(1));
+
+        transactionTemplate.executeWithoutResult(status -> scheduler.track(committed));
+        transactionTemplate.executeWithoutResult(status -> {
+            scheduler.track(rolledBack);
+            status.setRollbackOnly();
+        });
+        scheduler.tick();
+
+        verify(ticketRepository).lockById(1L);
+        verify(ticketRepository, never()).lockById(2L);
+    }
+
+    @Test
+    void failedCheckIsRetriedLaterInsteadOfOnEveryTick() {
+        LocalDateTime past = LocalDateTime.now().minusMinutes(1);
+        when(ticketRepository.lockById(1L)).thenThrow(new IllegalStateException("lock timeout"));
+        rows(Map.of(1L, past));
+
+        scheduler.rebuild();
+        scheduler.tick();
+        scheduler.tick();
+
+        verify(ticketRepository, times(1)).lockById(anyLong());
+    }
+
+    // Feeds (id, sla_due_at) rows to the startup scan
+    private void rows(Map<Long, LocalDateTime> dueById) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map.Entry<Long, LocalDateTime> row : dueById.entrySet()) {
+                handler.processRow(resultSet(row.getKey(), row.getValue()));
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    private List<SlaBreachedEvent> breaches() {
+        ArgumentCaptor<Object> published = ArgumentCaptor.forClass(Object.class);
+        verify(events, atLeast(0)).publishEvent(published.capture());
+        return published.getAllValues().stream()
+                .filter(SlaBreachedEvent.class::isInstance)
+                .map(SlaBreachedEvent.class::cast)
+                .collect(Collectors.toList());
+    }
+
+    private static ResultSet resultSet(long id, LocalDateTime due) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(id);
+        when(rs.getTimestamp(2)).thenReturn(Timestamp.valueOf(due));
+        return rs;
+    }
+
+    private static Ticket ticket(Long id, TicketStatus status) {
+        Ticket ticket = new Ticket();
+        ticket.setId(id);
+        ticket.setTitle("Ticket " + id);
+        ticket.setStatus(status);
+        return ticket;
+    }
+
+    private static Priority priority(int responseMinutes, int resolutionMinutes) {
+        Priority priority = new Priority();
+        priority.setName("HIGH");
+        priority.setLevel(3);
+        priority.setResponseMinutes(responseMinutes);
+        priority.setResolutionMinutes(resolutionMinutes);
+        return priority;
+    }
+}
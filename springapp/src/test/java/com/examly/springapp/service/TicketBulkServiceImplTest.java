@@ -0,0 +1,96 @@
+package com.examly.springapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.examly.springapp.dto.BulkTicketUpdateRequest;
+import com.examly.springapp.dto.BulkUpdateResult;
+import com.examly.springapp.exception.ForbiddenException;
+import com.examly.springapp.model.Ticket;
+import com.examly.springapp.model.TicketHistory;
+import com.examly.springapp.model.User;
+import com.examly.springapp.repository.TicketHistoryRepository;
+import com.examly.springapp.repository.TicketRepository;
+
+class TicketBulkServiceImplTest {
+
+    private TicketRepository ticketRepository;
+    private TicketHistoryRepository ticketHistoryRepository;
+    private ReferenceDataCache referenceData;
+    private TicketBulkServiceImpl bulk;
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository = mock(TicketRepository.class);
+        ticketHistoryRepository = mock(TicketHistoryRepository.class);
+        referenceData = mock(ReferenceDataCache.class);
+        when(ticketRepository.getReferenceById(anyLong())).thenAnswer(call -> new Ticket());
+        bulk = new TicketBulkServiceImpl(ticketRepository, ticketHistoryRepository, referenceData,
+                new TransactionTemplate(new NoOpTransactionManager()), mock(ApplicationEventPublisher.class),
+                mock(TicketChangeVersions.class));
+    }
+
+    @Test
+    void employeeCannotBulkCloseOrReassign() {
+        AuthenticatedUser employee = new AuthenticatedUser(3L, "erin", User.Role.EMPLOYEE.name());
+        BulkTicketUpdateRequest close = request(List.of(10L));
+        close.setStatus("Closed");
+        BulkTicketUpdateRequest reassign = request(List.of(10L));
+        reassign.setAssignedAgentId(2L);
+
+        assertThrows(ForbiddenException.class, () -> bulk.updateStatus(close, employee));
+        assertThrows(ForbiddenException.class, () -> bulk.assign(reassign, employee));
+        verifyNoInteractions(ticketRepository, ticketHistoryRepository);
+    }
+
+    @Test
+    void historyIsCreditedToTheCallerNotToAnIdInTheBody() {
+        User caller = user(2L, User.Role.AGENT);
+        User target = user(4L, User.Role.AGENT);
+        when(referenceData.findUserById(2L)).thenReturn(Optional.of(caller));
+        when(referenceData.findUserById(4L)).thenReturn(Optional.of(target));
+        when(ticketRepository.lockAssignmentsByIdIn(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] {10L, null}, new Object[] {11L, 2L}));
+        BulkTicketUpdateRequest reassign = request(List.of(10L, 11L));
+        reassign.setAssignedAgentId(4L);
+
+        BulkUpdateResult result = bulk.assign(reassign, new AuthenticatedUser(2L, "agent", User.Role.AGENT.name()));
+
+        assertEquals(2, result.getUpdated());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TicketHistory>> history = ArgumentCaptor.forClass(List.class);
+        verify(ticketHistoryRepository).saveAll(history.capture());
+        history.getValue().forEach(row -> assertEquals(caller, row.getUser()));
+        verify(ticketRepository).updateAssignedAgentByIdIn(anyList(), eq(target), anyLong());
+    }
+
+    private static BulkTicketUpdateRequest request(List<Long> ids) {
+        BulkTicketUpdateRequest request = new BulkTicketUpdateRequest();
+        request.setIds(ids);
+        return request;
+    }
+
+    private static User user(Long id, User.Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,174 @@
+package com.examly.springapp.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimingWheelTest {
+
+    // 10 ms ticks and 4 buckets per level: level 1 spans 16 ticks, level 2 spans 64
+    private static final long TICK = 10;
+    private static final int SIZE = 4;
+
+    private final HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, SIZE, 0);
+
+    @Test
+    void deadlineBetweenTicksIsRoundedUpAndNeverFiresEarly() {
+        assertTrue(wheel.schedule("a", 21));
+
+        assertEquals(List.of(), wheel.advance(21));
+        assertEquals(List.of(), wheel.advance(29));
+        assertEquals(List.of("a"), wheel.advance(30));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlineOnATickFiresOnThatTick() {
+        wheel.schedule("a", 30);
+
+        assertEquals(List.of(), wheel.advance(29));
+        assertEquals(List.of("a"), wheel.advance(30));
+    }
+
+    @Test
+    void alreadyDueDeadlineIsNotHeld() {
+        assertFalse(wheel.schedule("past", -50));
+        assertFalse(wheel.schedule("now", 0));
+        wheel.advance(100);
+        assertFalse(wheel.schedule("rounded-to-now", 95));
+
+        assertEquals(0, wheel.size());
+        assertEquals(List.of(), wheel.advance(1_000));
+    }
+
+    @Test
+    void everyDeadlineFiresOnItsOwnTickAcrossAllLevels() {
+        // Up to 300 ticks out: levels 0 to 3, so most entries cascade at least once
+        for (int tick = 1; tick <= 300; tick++) {
+            assertTrue(wheel.schedule("k" + tick, tick * TICK - 3));
+        }
+
+        Map<String, Long> firedAt = advanceTickByTick(300);
+
+        assertEquals(300, firedAt.size());
+        for (int tick = 1; tick <= 300; tick++) {
+            assertEquals(tick, firedAt.get("k" + tick), "k" + tick);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void entryCascadesDownFromALevelAboveZero() {
+        // 17 ticks out lives on level 2 until tick 16, then drops to level 0
+        wheel.schedule("a", 170);
+        // 5 ticks out lives on level 1 until tick 4
+        wheel.schedule("b", 50);
+
+        Map<String, Long> firedAt = advanceTickByTick(20);
+
+        assertEquals(5L, firedAt.get("b"));
+        assertEquals(17L, firedAt.get("a"));
+    }
+
+    @Test
+    void singleAdvanceReturnsEarlierTicksFirst() {
+        wheel.schedule("late", 90);
+        wheel.schedule("early", 20);
+        wheel.schedule("middle", 40);
+
+        assertEquals(List.of("early", "middle", "late"), wheel.advance(1_000));
+    }
+
+    @Test
+    void cancelledKeyNeverFires() {
+        wheel.schedule("a", 50);
+        wheel.schedule("b", 50);
+
+        assertTrue(wheel.cancel("a"));
+        assertFalse(wheel.cancel("a"));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("b"), wheel.advance(100));
+    }
+
+    @Test
+    void cancelAfterCascadeStillRemovesTheEntry() {
+        wheel.schedule("a", 200);
+        // Past tick 16, so the entry has moved out of its level-2 bucket
+        wheel.advance(170);
+
+        assertTrue(wheel.cancel("a"));
+        assertEquals(List.of(), wheel.advance(1_000));
+    }
+
+    @Test
+    void schedulingAgainReplacesTheDeadline() {
+        wheel.schedule("a", 50);
+        wheel.schedule("a", 120);
+        assertEquals(1, wheel.size());
+
+        assertEquals(List.of(), wheel.advance(110));
+        assertEquals(List.of("a"), wheel.advance(120));
+
+        wheel.schedule("b", 400);
+        wheel.schedule("b", 130);
+        assertEquals(List.of("b"), wheel.advance(130));
+        assertEquals(List.of(), wheel.advance(1_000));
+    }
+
+    @Test
+    void deadlineFarBeyondWheelSizeSquaredFiresOnTime() {
+        // 10,000 ticks is well past SIZE^2 = 16 and needs levels up to 4^6
+        long deadline = 10_000 * TICK;
+        wheel.schedule("far", deadline);
+        wheel.schedule("near", 30);
+
+        assertEquals(List.of("near"), wheel.advance(deadline - 1));
+        assertEquals(List.of("far"), wheel.advance(deadline));
+    }
+
+    @Test
+    void extremeDeadlineIsHeldWithoutOverflow() {
+        assertTrue(wheel.schedule("max", Long.MAX_VALUE - TICK));
+
+        assertEquals(List.of(), wheel.advance(1_000_000));
+        assertEquals(1, wheel.size());
+        assertTrue(wheel.cancel("max"));
+    }
+
+    @Test
+    void idleWheelJumpsAheadAndSchedulesFromTheNewTime() {
+        assertEquals(List.of(), wheel.advance(1_000_000));
+
+        assertFalse(wheel.schedule("old", 999_990));
+        assertTrue(wheel.schedule("new", 1_000_025));
+        assertEquals(List.of(), wheel.advance(1_000_029));
+        assertEquals(List.of("new"), wheel.advance(1_000_030));
+    }
+
+    @Test
+    void startTimeIsTheWheelsNow() {
+        HierarchicalTimingWheel<String> started = new HierarchicalTimingWheel<>(TICK, SIZE, 5_000);
+
+        assertFalse(started.schedule("a", 4_000));
+        assertTrue(started.schedule("b", 5_010));
+        assertEquals(List.of("b"), started.advance(5_010));
+    }
+
+    // Advances one tick at a time and records the tick each key fired on
+    private Map<String, Long> advanceTickByTick(long ticks) {
+        Map<String, Long> firedAt = new HashMap<>();
+        for (long tick = 1; tick <= ticks; tick++) {
+            for (String key : wheel.advance(tick * TICK)) {
+                assertNull(firedAt.put(key, tick), key + " fired twice");
+            }
+        }
+        return firedAt;
+    }
+}